@@ -0,0 +1,80 @@
+package com.ayursutra.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Local fan-out shared by the transports. Local delivery runs ahead of other after-commit work,
+ * so anything that reacts to the same commit (event stream pushes, for one) already sees the
+ * caches invalidated.
+ */
+abstract class AbstractInvalidationBus implements InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(AbstractInvalidationBus.class);
+
+    private final List<InvalidationListener> listeners;
+
+    protected AbstractInvalidationBus(List<InvalidationListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
+
+    @Override
+    public void publish(Collection<Invalidation> invalidations) {
+        if (invalidations.isEmpty()) {
+            return;
+        }
+        List<Invalidation> batch = List.copyOf(invalidations);
+        send(batch);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCommit() {
+                    deliver(batch);
+                }
+            });
+        } else {
+            deliver(batch);
+        }
+    }
+
+    /**
+     * Hands the batch to the other nodes, in the caller's transaction where there is one.
+     */
+    protected abstract void send(List<Invalidation> invalidations);
+
+    protected void deliver(List<Invalidation> invalidations) {
+        deliver(invalidations, false);
+    }
+
+    /**
+     * Delivers a batch received from another node.
+     */
+    protected void deliverRemote(List<Invalidation> invalidations) {
+        deliver(invalidations, true);
+    }
+
+    private void deliver(List<Invalidation> invalidations, boolean remote) {
+        for (InvalidationListener listener : listeners) {
+            try {
+                if (remote) {
+                    listener.onRemoteInvalidations(invalidations);
+                } else {
+                    listener.onInvalidations(invalidations);
+                }
+            } catch (RuntimeException e) {
+                log.error("Cache invalidation listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
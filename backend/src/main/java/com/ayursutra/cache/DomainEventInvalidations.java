@@ -0,0 +1,69 @@
+package com.ayursutra.cache;
+
+import com.ayursutra.event.*;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ayursutra.cache.Invalidation.Kind.*;
+
+/**
+ * Maps domain events from the service write methods to the cache keys they make stale, and
+ * publishes them on the bus inside the writing transaction. Both participants' data versions
+ * always change; a practitioner read model only when the event adds a row to it. Session changes
+ * also refresh the practitioner's calendar and reach both participants' event streams on the
+ * nodes that did not make the write.
+ */
+@Component
+public class DomainEventInvalidations {
+
+    private final InvalidationBus invalidationBus;
+
+    public DomainEventInvalidations(InvalidationBus invalidationBus) {
+        this.invalidationBus = invalidationBus;
+    }
+
+    @EventListener
+    public void onPatientCreated(PatientCreatedEvent event) {
+        publish(event, Invalidation.of(PATIENTS_VIEW, event.getPractitionerId()));
+    }
+
+    @EventListener
+    public void onTherapyPlanCreated(TherapyPlanCreatedEvent event) {
+        publish(event, Invalidation.of(PLANS_VIEW, event.getPractitionerId()));
+    }
+
+    @EventListener
+    public void onSessionsChanged(SessionsChangedEvent event) {
+        publish(event, sessionChanges(event));
+    }
+
+    // Completes the session, which frees its slot and shows up in both participants' sessions
+    @EventListener
+    public void onFeedbackSubmitted(FeedbackSubmittedEvent event) {
+        List<Invalidation> extra = new ArrayList<>(sessionChanges(event));
+        extra.add(Invalidation.of(FEEDBACK_VIEW, event.getPractitionerId()));
+        publish(event, extra);
+    }
+
+    private static List<Invalidation> sessionChanges(ParticipantEvent event) {
+        return List.of(
+                Invalidation.of(PRACTITIONER_CALENDAR, event.getPractitionerId()),
+                Invalidation.of(SESSIONS_STREAM, event.getPractitionerId()),
+                Invalidation.of(SESSIONS_STREAM, event.getPatientId()));
+    }
+
+    private void publish(ParticipantEvent event, Invalidation extra) {
+        publish(event, List.of(extra));
+    }
+
+    private void publish(ParticipantEvent event, List<Invalidation> extra) {
+        List<Invalidation> invalidations = new ArrayList<>(2 + extra.size());
+        invalidations.add(Invalidation.of(DATA_VERSION, event.getPractitionerId()));
+        invalidations.add(Invalidation.of(DATA_VERSION, event.getPatientId()));
+        invalidations.addAll(extra);
+        invalidationBus.publish(invalidations);
+    }
+}
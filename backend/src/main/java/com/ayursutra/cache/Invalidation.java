@@ -0,0 +1,63 @@
+package com.ayursutra.cache;
+
+import java.util.Objects;
+
+/**
+ * A compact key of per-node state to refresh on every node: a kind plus one id. Kinds name a
+ * user's data version, one of a practitioner's cached read models, a practitioner's in-memory
+ * calendar, or a user's event stream to push a change to.
+ */
+public final class Invalidation {
+
+    public enum Kind {
+        DATA_VERSION,
+        PATIENTS_VIEW,
+        PLANS_VIEW,
+        FEEDBACK_VIEW,
+        PRACTITIONER_CALENDAR,
+        SESSIONS_STREAM,
+        NOTIFICATIONS_STREAM
+    }
+
+    private final Kind kind;
+    private final long key;
+
+    public Invalidation(Kind kind, long key) {
+        this.kind = Objects.requireNonNull(kind);
+        this.key = key;
+    }
+
+    public static Invalidation of(Kind kind, Long key) {
+        return new Invalidation(kind, key);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Invalidation)) {
+            return false;
+        }
+        Invalidation other = (Invalidation) o;
+        return kind == other.kind && key == other.key;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * kind.hashCode() + Long.hashCode(key);
+    }
+
+    @Override
+    public String toString() {
+        return kind + ":" + key;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ayursutra.cache;
+
+import java.util.Collection;
+
+/**
+ * Carries cache invalidations raised by writes to every {@link InvalidationListener}, on this
+ * node and (depending on the transport) on the other nodes. Selected by
+ * {@code app.invalidation.transport}: {@code local} (default, single node) or {@code jdbc}.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Publishes as part of the current transaction: nothing is delivered if it rolls back, and
+     * local listeners run once it commits. Outside a transaction, delivers straight away.
+     */
+    void publish(Collection<Invalidation> invalidations);
+}
@@ -0,0 +1,24 @@
+package com.ayursutra.cache;
+
+import java.util.List;
+
+/**
+ * In-process state that is refreshed when the bus delivers invalidations. Called after the
+ * publishing transaction commits, on the publishing thread for local invalidations and on the
+ * transport's thread for ones from other nodes; implementations ignore kinds they do not hold.
+ */
+public interface InvalidationListener {
+
+    /**
+     * Invalidations published on this node.
+     */
+    void onInvalidations(List<Invalidation> invalidations);
+
+    /**
+     * Invalidations published on another node. Handled like local ones unless overridden by
+     * state that the writing node updates directly and other nodes only learn about here.
+     */
+    default void onRemoteInvalidations(List<Invalidation> invalidations) {
+        onInvalidations(invalidations);
+    }
+}
@@ -0,0 +1,163 @@
+package com.ayursutra.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-node transport over the {@code cache_invalidations} table. Publishers insert their keys in
+ * the writing transaction, so other nodes see them exactly when the write is visible; each node
+ * polls for rows written by the others and delivers them to its local listeners. Delivery lag is
+ * bounded by the poll interval.
+ * <p>
+ * Rows are read by creation time over a trailing {@code lookback} window rather than by id, so a
+ * long transaction that commits after later ones is still picked up (up to the window); ids seen
+ * within the window are remembered and not delivered twice. All times are database times.
+ * <p>
+ * Works on H2 and PostgreSQL alike. Each instance has its own node id and poller (started by
+ * {@link #start()}), so several buses over one data source can stand in for a cluster inside a
+ * single JVM.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.transport", havingValue = "jdbc")
+public class JdbcInvalidationBus extends AbstractInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcInvalidationBus.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final long lookbackMs;
+    private final long retentionMs;
+    private final long pruneEveryMs;
+    private final long pollIntervalMs;
+    private final ScheduledExecutorService poller;
+    private final Map<Long, Timestamp> seen = new HashMap<>();
+    private final Counter sent;
+    private final Counter received;
+    private Timestamp watermark;
+    private long lastPruneMs;
+
+    public JdbcInvalidationBus(List<InvalidationListener> listeners,
+                               JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.invalidation.jdbc.poll-interval-ms:500}") long pollIntervalMs,
+                               @Value("${app.invalidation.jdbc.lookback-seconds:15}") long lookbackSeconds,
+                               @Value("${app.invalidation.jdbc.retention-minutes:10}") long retentionMinutes) {
+        super(listeners);
+        this.jdbcTemplate = jdbcTemplate;
+        this.lookbackMs = TimeUnit.SECONDS.toMillis(lookbackSeconds);
+        this.retentionMs = TimeUnit.MINUTES.toMillis(retentionMinutes);
+        this.pruneEveryMs = TimeUnit.MINUTES.toMillis(1);
+        this.pollIntervalMs = pollIntervalMs;
+        this.sent = Counter.builder("cache.invalidations").tag("direction", "sent").register(meterRegistry);
+        this.received = Counter.builder("cache.invalidations").tag("direction", "received").register(meterRegistry);
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cache-invalidation-poller");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        poller.execute(() -> {
+            // Caches start empty, so only rows written from now on matter
+            watermark = jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class);
+        });
+        poller.scheduleWithFixedDelay(this::pollSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void send(List<Invalidation> invalidations) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO cache_invalidations (node_id, kind, entity_key) VALUES (?, ?, ?)",
+                invalidations, invalidations.size(), (ps, invalidation) -> {
+                    ps.setString(1, nodeId);
+                    ps.setString(2, invalidation.getKind().name());
+                    ps.setLong(3, invalidation.getKey());
+                });
+        sent.increment(invalidations.size());
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Polling cache invalidations failed: {}", e.getMessage());
+        }
+    }
+
+    // Only ever runs on the poller thread
+    private void poll() {
+        if (watermark == null) {
+            return;
+        }
+        Timestamp from = new Timestamp(watermark.getTime() - lookbackMs);
+        List<Invalidation> fresh = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT id, node_id, kind, entity_key, created_at FROM cache_invalidations " +
+                "WHERE created_at > ? ORDER BY id",
+                rs -> {
+                    long id = rs.getLong("id");
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    if (createdAt.after(watermark)) {
+                        watermark = createdAt;
+                    }
+                    if (seen.putIfAbsent(id, createdAt) != null || nodeId.equals(rs.getString("node_id"))) {
+                        return;
+                    }
+                    Invalidation.Kind kind = parseKind(rs.getString("kind"));
+                    if (kind != null) {
+                        fresh.add(new Invalidation(kind, rs.getLong("entity_key")));
+                    }
+                },
+                from);
+
+        Timestamp horizon = new Timestamp(watermark.getTime() - lookbackMs);
+        seen.values().removeIf(createdAt -> createdAt.before(horizon));
+
+        if (!fresh.isEmpty()) {
+            received.increment(fresh.size());
+            deliverRemote(fresh);
+        }
+        prune();
+    }
+
+    private void prune() {
+        long now = System.currentTimeMillis();
+        if (now - lastPruneMs < pruneEveryMs) {
+            return;
+        }
+        lastPruneMs = now;
+        jdbcTemplate.update("DELETE FROM cache_invalidations WHERE created_at < ?",
+                new Timestamp(watermark.getTime() - retentionMs));
+    }
+
+    // Rows written by a newer version may carry kinds this node does not know yet
+    private static Invalidation.Kind parseKind(String kind) {
+        try {
+            return Invalidation.Kind.valueOf(kind);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+}
@@ -0,0 +1,24 @@
+package com.ayursutra.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Single-node transport: invalidations only reach this JVM's caches. Active unless another
+ * transport is configured.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.transport", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationBus extends AbstractInvalidationBus {
+
+    public LocalInvalidationBus(List<InvalidationListener> listeners) {
+        super(listeners);
+    }
+
+    @Override
+    protected void send(List<Invalidation> invalidations) {
+        // Nothing to send: there are no other nodes
+    }
+}
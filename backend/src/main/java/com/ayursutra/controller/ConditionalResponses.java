@@ -0,0 +1,50 @@
+package com.ayursutra.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET on top of {@link com.ayursutra.service.DataVersions}: the ETag is known before
+ * anything is queried, so a matching {@code If-None-Match} is answered with 304 without calling
+ * the service. Responses are private and must be revalidated, which lets the browser keep them
+ * and send the tag back on the next refresh.
+ */
+final class ConditionalResponses {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    static <T> ResponseEntity<T> withETag(String ifNoneMatch, String etag, Supplier<ResponseEntity<T>> response) {
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        ResponseEntity<T> full = response.get();
+        return ResponseEntity.status(full.getStatusCode())
+                .headers(full.getHeaders())
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(full.getBody());
+    }
+
+    // If-None-Match uses the weak comparison, and may list several tags or be "*"
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,10 +1,11 @@
 package com.ayursutra.controller;
 
 import com.ayursutra.dto.*;
-import com.ayursutra.security.JwtUtil;
+import com.ayursutra.security.CurrentUser;
+import com.ayursutra.service.DataVersions;
 import com.ayursutra.service.PatientService;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -17,47 +18,48 @@ import java.util.List;
 public class PatientController {
 
     private final PatientService patientService;
-    private final JwtUtil jwtUtil;
+    private final DataVersions dataVersions;
 
-    public PatientController(PatientService patientService, JwtUtil jwtUtil) {
+    public PatientController(PatientService patientService, DataVersions dataVersions) {
         this.patientService = patientService;
-        this.jwtUtil = jwtUtil;
+        this.dataVersions = dataVersions;
     }
 
     @GetMapping("/my-sessions")
-    public ResponseEntity<List<TherapySessionResponse>> getMySessions(HttpServletRequest httpRequest) {
-        Long patientId = extractUserId(httpRequest);
-        return ResponseEntity.ok(patientService.getMySessions(patientId));
+    public ResponseEntity<List<TherapySessionResponse>> getMySessions(
+            @CurrentUser Long patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalResponses.withETag(ifNoneMatch, dataVersions.etag(patientId),
+                () -> CursorResponses.ok(patientService.getMySessions(patientId, cursor, limit)));
     }
 
     @PostMapping("/feedback")
     public ResponseEntity<FeedbackResponse> submitFeedback(
             @Valid @RequestBody FeedbackRequest request,
-            HttpServletRequest httpRequest) {
-        Long patientId = extractUserId(httpRequest);
+            @CurrentUser Long patientId) {
         return ResponseEntity.ok(patientService.submitFeedback(request, patientId));
     }
 
     @GetMapping("/therapy-progress")
-    public ResponseEntity<TherapyProgressResponse> getTherapyProgress(HttpServletRequest httpRequest) {
-        Long patientId = extractUserId(httpRequest);
-        return ResponseEntity.ok(patientService.getTherapyProgress(patientId));
+    public ResponseEntity<TherapyProgressResponse> getTherapyProgress(
+            @CurrentUser Long patientId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalResponses.withETag(ifNoneMatch, dataVersions.etag(patientId),
+                () -> ResponseEntity.ok(patientService.getTherapyProgress(patientId)));
     }
 
     @GetMapping("/my-profile")
-    public ResponseEntity<PatientProfileResponse> getMyProfile(HttpServletRequest httpRequest) {
-        Long patientId = extractUserId(httpRequest);
+    public ResponseEntity<PatientProfileResponse> getMyProfile(@CurrentUser Long patientId) {
         return ResponseEntity.ok(patientService.getMyProfile(patientId));
     }
 
     @GetMapping("/notifications")
-    public ResponseEntity<List<NotificationResponse>> getNotifications(HttpServletRequest httpRequest) {
-        Long patientId = extractUserId(httpRequest);
-        return ResponseEntity.ok(patientService.getMyNotifications(patientId));
-    }
-
-    private Long extractUserId(HttpServletRequest request) {
-        String token = request.getHeader("Authorization").substring(7);
-        return jwtUtil.extractUserId(token);
+    public ResponseEntity<List<NotificationResponse>> getNotifications(
+            @CurrentUser Long patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return CursorResponses.ok(patientService.getMyNotifications(patientId, cursor, limit));
     }
 }
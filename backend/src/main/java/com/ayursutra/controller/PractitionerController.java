@@ -1,15 +1,18 @@
 package com.ayursutra.controller;
 
 import com.ayursutra.dto.*;
-import com.ayursutra.security.JwtUtil;
-import com.ayursutra.security.SecurityUtil;
+import com.ayursutra.security.CurrentUser;
+import com.ayursutra.security.PasswordHasher;
+import com.ayursutra.service.DataVersions;
 import com.ayursutra.service.PractitionerService;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,71 +21,100 @@ import java.util.List;
 public class PractitionerController {
 
     private final PractitionerService practitionerService;
-    private final JwtUtil jwtUtil;
+    private final DataVersions dataVersions;
+    private final PasswordHasher passwordHasher;
 
-    public PractitionerController(PractitionerService practitionerService, JwtUtil jwtUtil) {
+    public PractitionerController(PractitionerService practitionerService,
+                                  DataVersions dataVersions,
+                                  PasswordHasher passwordHasher) {
         this.practitionerService = practitionerService;
-        this.jwtUtil = jwtUtil;
+        this.dataVersions = dataVersions;
+        this.passwordHasher = passwordHasher;
     }
 
     @PostMapping("/patients")
     public ResponseEntity<PatientProfileResponse> createPatient(
             @Valid @RequestBody PatientProfileRequest request,
-            HttpServletRequest httpRequest) {
-        Long practitionerId = extractUserId(httpRequest);
-        return ResponseEntity.ok(practitionerService.createPatient(request, practitionerId));
+            @CurrentUser Long practitionerId) {
+        // Hashed before the service opens its transaction, so BCrypt never runs holding a connection
+        String passwordHash = passwordHasher.encode(request.getPassword());
+        return ResponseEntity.ok(practitionerService.createPatient(request, passwordHash, practitionerId));
     }
 
     @GetMapping("/patients")
-    public ResponseEntity<List<PatientProfileResponse>> getAllPatients() {
-        return ResponseEntity.ok(practitionerService.getAllPatients(SecurityUtil.getCurrentUserId()));
+    public ResponseEntity<List<PatientProfileResponse>> getAllPatients(
+            @CurrentUser Long practitionerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalResponses.withETag(ifNoneMatch, dataVersions.etag(practitionerId),
+                () -> CursorResponses.ok(practitionerService.getAllPatients(practitionerId, cursor, limit)));
     }
 
     @PostMapping("/therapy-plan")
     public ResponseEntity<TherapyPlanResponse> createTherapyPlan(
             @Valid @RequestBody TherapyPlanRequest request,
-            HttpServletRequest httpRequest) {
-        Long practitionerId = extractUserId(httpRequest);
+            @CurrentUser Long practitionerId) {
         return ResponseEntity.ok(practitionerService.createTherapyPlan(request, practitionerId));
     }
 
     @GetMapping("/therapy-plans")
-    public ResponseEntity<List<TherapyPlanResponse>> getTherapyPlans(HttpServletRequest httpRequest) {
-        Long practitionerId = extractUserId(httpRequest);
-        return ResponseEntity.ok(practitionerService.getTherapyPlans(practitionerId));
+    public ResponseEntity<List<TherapyPlanResponse>> getTherapyPlans(
+            @CurrentUser Long practitionerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalResponses.withETag(ifNoneMatch, dataVersions.etag(practitionerId),
+                () -> CursorResponses.ok(practitionerService.getTherapyPlans(practitionerId, cursor, limit)));
     }
 
     @PostMapping("/session")
     public ResponseEntity<TherapySessionResponse> scheduleSession(
             @Valid @RequestBody TherapySessionRequest request,
-            HttpServletRequest httpRequest) {
-        Long practitionerId = extractUserId(httpRequest);
+            @CurrentUser Long practitionerId) {
         return ResponseEntity.ok(practitionerService.scheduleSession(request, practitionerId));
     }
 
     @GetMapping("/dashboard")
-    public ResponseEntity<DashboardResponse> getDashboard(HttpServletRequest httpRequest) {
-        Long practitionerId = extractUserId(httpRequest);
-        return ResponseEntity.ok(practitionerService.getDashboard(practitionerId));
+    public ResponseEntity<DashboardResponse> getDashboard(
+            @CurrentUser Long practitionerId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalResponses.withETag(ifNoneMatch, dataVersions.etag(practitionerId),
+                () -> ResponseEntity.ok(practitionerService.getDashboard(practitionerId)));
     }
 
     @GetMapping("/feedback")
-    public ResponseEntity<List<FeedbackResponse>> getAllFeedback(HttpServletRequest httpRequest) {
-        Long practitionerId = extractUserId(httpRequest);
-        return ResponseEntity.ok(practitionerService.getAllFeedback(practitionerId));
+    public ResponseEntity<List<FeedbackResponse>> getAllFeedback(
+            @CurrentUser Long practitionerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalResponses.withETag(ifNoneMatch, dataVersions.etag(practitionerId),
+                () -> CursorResponses.ok(practitionerService.getAllFeedback(practitionerId, cursor, limit)));
+    }
+
+    @PostMapping("/sessions/bulk")
+    public ResponseEntity<List<TherapySessionResponse>> scheduleCourse(
+            @Valid @RequestBody BulkSessionRequest request,
+            @CurrentUser Long practitionerId) {
+        return ResponseEntity.ok(practitionerService.scheduleCourse(request, practitionerId));
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<List<AvailableSlot>> getAvailability(
+            @CurrentUser Long practitionerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer duration,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(practitionerService.getAvailability(practitionerId, from, to, duration, limit));
     }
 
     @PutMapping("/session/{sessionId}/status")
     public ResponseEntity<TherapySessionResponse> updateSessionStatus(
             @PathVariable Long sessionId,
             @RequestParam com.ayursutra.model.enums.SessionStatus status,
-            HttpServletRequest httpRequest) {
-        Long practitionerId = extractUserId(httpRequest);
+            @CurrentUser Long practitionerId) {
         return ResponseEntity.ok(practitionerService.updateSessionStatus(sessionId, status, practitionerId));
     }
-
-    private Long extractUserId(HttpServletRequest request) {
-        String token = request.getHeader("Authorization").substring(7);
-        return jwtUtil.extractUserId(token);
-    }
 }
@@ -0,0 +1,47 @@
+package com.ayursutra.controller;
+
+import com.ayursutra.dto.StreamTokenResponse;
+import com.ayursutra.security.CurrentUser;
+import com.ayursutra.security.JwtAuthenticationFilter;
+import com.ayursutra.security.JwtUtil;
+import com.ayursutra.service.EventStreamHub;
+import io.jsonwebtoken.Claims;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api")
+public class StreamController {
+
+    private final EventStreamHub eventStreamHub;
+    private final JwtUtil jwtUtil;
+
+    public StreamController(EventStreamHub eventStreamHub, JwtUtil jwtUtil) {
+        this.eventStreamHub = eventStreamHub;
+        this.jwtUtil = jwtUtil;
+    }
+
+    // Short-lived token for the stream URL, so the session token never appears in a query string
+    @PostMapping("/stream/token")
+    public ResponseEntity<StreamTokenResponse> streamToken(
+            @RequestAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE) Claims claims) {
+        return ResponseEntity.ok(new StreamTokenResponse(jwtUtil.generateStreamToken(claims),
+                TimeUnit.MILLISECONDS.toSeconds(jwtUtil.getStreamExpirationMs())));
+    }
+
+    // Server-sent events for the signed-in user: "notification" and "sessions". Open with
+    // ?access_token= set to a token from /stream/token; the stream ends with the session behind it.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@CurrentUser Long userId,
+                             @RequestAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE) Claims claims) {
+        return eventStreamHub.subscribe(userId, jwtUtil.sessionExpiresAt(claims), jwtUtil.extractTokenVersion(claims));
+    }
+}
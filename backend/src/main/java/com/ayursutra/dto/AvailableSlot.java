@@ -0,0 +1,13 @@
+package com.ayursutra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class AvailableSlot {
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
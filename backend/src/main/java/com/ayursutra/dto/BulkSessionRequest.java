@@ -0,0 +1,34 @@
+package com.ayursutra.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A course of sessions for one therapy plan: either an explicit list of {@code slots}, or
+ * {@code count} sessions starting at {@code firstSession} and repeating every {@code intervalDays}.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class BulkSessionRequest {
+
+    @NotNull(message = "Therapy plan ID is required")
+    private Long therapyPlanId;
+
+    @NotBlank(message = "Procedure name is required")
+    private String procedureName;
+
+    private String notes;
+
+    private List<LocalDateTime> slots;
+
+    private LocalDateTime firstSession;
+
+    @Min(value = 1, message = "Count must be at least 1")
+    private Integer count;
+
+    @Min(value = 1, message = "Interval must be at least 1 day")
+    private Integer intervalDays;
+}
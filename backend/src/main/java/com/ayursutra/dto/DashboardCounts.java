@@ -0,0 +1,26 @@
+package com.ayursutra.dto;
+
+import lombok.Getter;
+
+/**
+ * Session counters for one practitioner, computed by a single grouped aggregate query.
+ */
+@Getter
+public class DashboardCounts {
+    private final long totalSessions;
+    private final long completedSessions;
+    private final long upcomingSessions;
+    private final long pendingFeedback;
+
+    // SUM over an empty set is NULL, so the aggregate columns arrive as nullable Longs
+    public DashboardCounts(Long totalSessions, Long completedSessions, Long upcomingSessions, Long pendingFeedback) {
+        this.totalSessions = nullToZero(totalSessions);
+        this.completedSessions = nullToZero(completedSessions);
+        this.upcomingSessions = nullToZero(upcomingSessions);
+        this.pendingFeedback = nullToZero(pendingFeedback);
+    }
+
+    private static long nullToZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
@@ -19,6 +19,18 @@ public class FeedbackResponse {
     private Integer improvementLevel;
     private LocalDateTime createdAt;
 
+    // Summary projection used by the practitioner feedback list (no free-text symptom fields)
+    public FeedbackResponse(Long id, Long sessionId, String procedureName, String patientName,
+                            String message, Integer rating, LocalDateTime createdAt) {
+        this.id = id;
+        this.sessionId = sessionId;
+        this.procedureName = procedureName;
+        this.patientName = patientName;
+        this.message = message;
+        this.rating = rating;
+        this.createdAt = createdAt;
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public Long getSessionId() { return sessionId; }
@@ -11,6 +11,6 @@ public class NotificationResponse {
     private Long id;
     private String subject;
     private String body;
-    private boolean sent;
+    private Boolean sent;
     private LocalDateTime createdAt;
 }
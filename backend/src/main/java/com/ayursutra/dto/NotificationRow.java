@@ -0,0 +1,23 @@
+package com.ayursutra.dto;
+
+import com.ayursutra.model.enums.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stored notification before rendering: template and arguments, or the pre-rendered
+ * subject/body of rows written before templated storage.
+ */
+@Getter
+@AllArgsConstructor
+public class NotificationRow {
+    private Long id;
+    private NotificationType type;
+    private String args;
+    private String subject;
+    private String body;
+    private Boolean sent;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,66 @@
+package com.ayursutra.dto;
+
+import com.ayursutra.exception.BadRequestException;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page: the ordering column value (if any) plus the id tie-breaker.
+ * Serialized as an opaque base64url token.
+ */
+@Getter
+public class PageCursor {
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    private PageCursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public static PageCursor of(LocalDateTime timestamp, Long id) {
+        return new PageCursor(timestamp, id);
+    }
+
+    public static PageCursor of(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    public String encode() {
+        String raw = timestamp != null ? timestamp + "|" + id : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}; returns null for a missing token.
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) {
+                return new PageCursor(null, Long.parseLong(raw));
+            }
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+    }
+
+    /**
+     * Rejects id-only cursors on lists ordered by a timestamp column.
+     */
+    public PageCursor requireTimestamp() {
+        if (timestamp == null) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+        return this;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ayursutra.dto;
+
+import com.ayursutra.model.enums.Phase;
+import lombok.Getter;
+
+/**
+ * Session counters for one patient and phase, as computed by a grouped aggregate query.
+ */
+@Getter
+public class PhaseCounts extends DashboardCounts {
+    private final Phase phase;
+
+    public PhaseCounts(Phase phase, Long totalSessions, Long completedSessions, Long upcomingSessions, Long pendingFeedback) {
+        super(totalSessions, completedSessions, upcomingSessions, pendingFeedback);
+        this.phase = phase;
+    }
+}
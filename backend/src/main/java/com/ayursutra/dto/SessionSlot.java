@@ -0,0 +1,17 @@
+package com.ayursutra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A booked session as seen by the practitioner calendar: just its id, start time and procedure.
+ */
+@Getter
+@AllArgsConstructor
+public class SessionSlot {
+    private Long id;
+    private LocalDateTime scheduledDate;
+    private String procedureName;
+}
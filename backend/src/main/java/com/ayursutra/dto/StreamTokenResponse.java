@@ -0,0 +1,11 @@
+package com.ayursutra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StreamTokenResponse {
+    private String token;
+    private long expiresInSeconds;
+}
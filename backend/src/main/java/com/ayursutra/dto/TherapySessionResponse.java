@@ -21,6 +21,21 @@ public class TherapySessionResponse {
     private String patientName;
     private FeedbackResponse feedback;
 
+    // Projection constructor for JPQL queries; feedback is attached afterwards in one batch
+    public TherapySessionResponse(Long id, Long therapyPlanId, Phase phase, String procedureName,
+                                  LocalDateTime scheduledDate, String notes, SessionStatus status,
+                                  String practitionerName, String patientName) {
+        this.id = id;
+        this.therapyPlanId = therapyPlanId;
+        this.phase = phase;
+        this.procedureName = procedureName;
+        this.scheduledDate = scheduledDate;
+        this.notes = notes;
+        this.status = status;
+        this.practitionerName = practitionerName;
+        this.patientName = patientName;
+    }
+
     // Manual accessors as fallback for Lombok issues
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,15 @@
+package com.ayursutra.event;
+
+public class FeedbackSubmittedEvent extends ParticipantEvent {
+
+    private final Long sessionId;
+
+    public FeedbackSubmittedEvent(Long practitionerId, Long patientId, Long sessionId) {
+        super(practitionerId, patientId);
+        this.sessionId = sessionId;
+    }
+
+    public Long getSessionId() {
+        return sessionId;
+    }
+}
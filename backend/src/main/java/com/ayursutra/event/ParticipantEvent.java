@@ -0,0 +1,24 @@
+package com.ayursutra.event;
+
+/**
+ * Domain event raised by a write that changes what a practitioner and one of their patients
+ * see. Listeners run after the writing transaction commits.
+ */
+public abstract class ParticipantEvent {
+
+    private final Long practitionerId;
+    private final Long patientId;
+
+    protected ParticipantEvent(Long practitionerId, Long patientId) {
+        this.practitionerId = practitionerId;
+        this.patientId = patientId;
+    }
+
+    public Long getPractitionerId() {
+        return practitionerId;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ayursutra.event;
+
+public class PatientCreatedEvent extends ParticipantEvent {
+
+    public PatientCreatedEvent(Long practitionerId, Long patientId) {
+        super(practitionerId, patientId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ayursutra.event;
+
+import java.util.List;
+
+/**
+ * Sessions were scheduled or changed status.
+ */
+public class SessionsChangedEvent extends ParticipantEvent {
+
+    private final List<Long> sessionIds;
+
+    public SessionsChangedEvent(Long practitionerId, Long patientId, List<Long> sessionIds) {
+        super(practitionerId, patientId);
+        this.sessionIds = List.copyOf(sessionIds);
+    }
+
+    public List<Long> getSessionIds() {
+        return sessionIds;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ayursutra.event;
+
+public class TherapyPlanCreatedEvent extends ParticipantEvent {
+
+    private final Long planId;
+
+    public TherapyPlanCreatedEvent(Long practitionerId, Long patientId, Long planId) {
+        super(practitionerId, patientId);
+        this.planId = planId;
+    }
+
+    public Long getPlanId() {
+        return planId;
+    }
+}
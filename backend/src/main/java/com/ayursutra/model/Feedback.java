@@ -15,17 +15,22 @@ import java.time.LocalDateTime;
 public class Feedback {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feedbacks_seq")
+    @SequenceGenerator(name = "feedbacks_seq", sequenceName = "feedbacks_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "session_id", nullable = false)
     private TherapySession session;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private User patient;
 
+    // Copied from the session so practitioner feedback lists don't have to join sessions and plans
+    @Column(name = "practitioner_id", nullable = false)
+    private Long practitionerId;
+
     @Column(columnDefinition = "TEXT", nullable = false)
     private String message;
 
@@ -45,6 +50,9 @@ public class Feedback {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        if (session != null) {
+            practitionerId = session.getPractitionerId();
+        }
     }
 
     // Manual accessors as fallback for Lombok issues
@@ -54,6 +62,7 @@ public class Feedback {
     public void setSession(TherapySession session) { this.session = session; }
     public User getPatient() { return patient; }
     public void setPatient(User patient) { this.patient = patient; }
+    public Long getPractitionerId() { return practitionerId; }
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
     public Integer getRating() { return rating; }
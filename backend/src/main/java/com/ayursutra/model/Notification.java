@@ -1,5 +1,6 @@
 package com.ayursutra.model;
 
+import com.ayursutra.model.enums.NotificationType;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -15,17 +16,26 @@ import java.time.LocalDateTime;
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false)
+    // Stored as template + arguments and rendered on read; subject/body are only set on rows
+    // created before templated storage and on events whose template could not be rendered
+    @Enumerated(EnumType.STRING)
+    @Column(name = "template", length = 30)
+    private NotificationType type;
+
+    @Column(columnDefinition = "TEXT")
+    private String args;
+
     private String subject;
 
-    @Column(columnDefinition = "TEXT", nullable = false)
+    @Column(columnDefinition = "TEXT")
     private String body;
 
     @Column(nullable = false)
@@ -38,6 +48,10 @@ public class Notification {
     public void setId(Long id) { this.id = id; }
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
+    public NotificationType getType() { return type; }
+    public void setType(NotificationType type) { this.type = type; }
+    public String getArgs() { return args; }
+    public void setArgs(String args) { this.args = args; }
     public String getSubject() { return subject; }
     public void setSubject(String subject) { this.subject = subject; }
     public String getBody() { return body; }
@@ -55,6 +69,8 @@ public class Notification {
         private Notification notification = new Notification();
         public NotificationBuilder id(Long id) { notification.id = id; return this; }
         public NotificationBuilder user(User user) { notification.user = user; return this; }
+        public NotificationBuilder type(NotificationType type) { notification.type = type; return this; }
+        public NotificationBuilder args(String args) { notification.args = args; return this; }
         public NotificationBuilder subject(String subject) { notification.subject = subject; return this; }
         public NotificationBuilder body(String body) { notification.body = body; return this; }
         public NotificationBuilder sent(Boolean sent) { notification.sent = sent; return this; }
@@ -0,0 +1,61 @@
+package com.ayursutra.model;
+
+import com.ayursutra.model.enums.Phase;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Incrementally maintained session counters for one patient in one therapy phase.
+ */
+@Entity
+@Table(name = "patient_phase_stats")
+@IdClass(PatientPhaseStats.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientPhaseStats {
+
+    @Id
+    @Column(name = "patient_id")
+    private Long patientId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Phase phase;
+
+    @Column(nullable = false)
+    private long totalSessions;
+
+    @Column(nullable = false)
+    private long completedSessions;
+
+    @Column(nullable = false)
+    private long upcomingSessions;
+
+    @Column(nullable = false)
+    private long pendingFeedback;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long patientId;
+        private Phase phase;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(patientId, key.patientId) && phase == key.phase;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(patientId, phase);
+        }
+    }
+}
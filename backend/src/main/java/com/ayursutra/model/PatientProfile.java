@@ -2,8 +2,12 @@ package com.ayursutra.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "patient-profiles")
 @Table(name = "patient_profiles")
 @Getter
 @Setter
@@ -13,14 +17,15 @@ import lombok.*;
 public class PatientProfile {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_profiles_seq")
+    @SequenceGenerator(name = "patient_profiles_seq", sequenceName = "patient_profiles_seq", allocationSize = 50)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "practitioner_id")
     private User practitioner;
 
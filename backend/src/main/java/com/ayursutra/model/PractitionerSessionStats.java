@@ -0,0 +1,32 @@
+package com.ayursutra.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Incrementally maintained session counters for one practitioner's dashboard.
+ */
+@Entity
+@Table(name = "practitioner_session_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PractitionerSessionStats {
+
+    @Id
+    @Column(name = "practitioner_id")
+    private Long practitionerId;
+
+    @Column(nullable = false)
+    private long totalSessions;
+
+    @Column(nullable = false)
+    private long completedSessions;
+
+    @Column(nullable = false)
+    private long upcomingSessions;
+
+    @Column(nullable = false)
+    private long pendingFeedback;
+}
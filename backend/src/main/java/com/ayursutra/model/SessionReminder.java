@@ -0,0 +1,34 @@
+package com.ayursutra.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending reminder for a scheduled session, due {@code offsetMinutes} before it starts.
+ * The row is deleted when the reminder fires or the session leaves SCHEDULED.
+ */
+@Entity
+@Table(name = "session_reminders")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SessionReminder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "session_reminders_seq")
+    @SequenceGenerator(name = "session_reminders_seq", sequenceName = "session_reminders_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "session_id", nullable = false)
+    private Long sessionId;
+
+    @Column(nullable = false)
+    private int offsetMinutes;
+
+    @Column(nullable = false)
+    private LocalDateTime dueAt;
+}
@@ -3,10 +3,14 @@ package com.ayursutra.model;
 import com.ayursutra.model.enums.Phase;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "therapy-plans")
 @Table(name = "therapy_plans")
 @Getter
 @Setter
@@ -16,14 +20,15 @@ import java.time.LocalDate;
 public class TherapyPlan {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "therapy_plans_seq")
+    @SequenceGenerator(name = "therapy_plans_seq", sequenceName = "therapy_plans_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private User patient;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "practitioner_id", nullable = false)
     private User practitioner;
 
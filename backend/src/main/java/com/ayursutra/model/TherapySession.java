@@ -16,13 +16,21 @@ import java.time.LocalDateTime;
 public class TherapySession {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "therapy_sessions_seq")
+    @SequenceGenerator(name = "therapy_sessions_seq", sequenceName = "therapy_sessions_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "therapy_plan_id", nullable = false)
     private TherapyPlan therapyPlan;
 
+    // Copied from the plan so practitioner/patient queries don't have to join therapy_plans
+    @Column(name = "practitioner_id", nullable = false)
+    private Long practitionerId;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
     @Column(nullable = false)
     private String procedureName;
 
@@ -36,8 +44,19 @@ public class TherapySession {
     @Column(nullable = false)
     private SessionStatus status;
 
+    @PrePersist
+    @PreUpdate
+    protected void syncParticipants() {
+        if (therapyPlan != null) {
+            practitionerId = therapyPlan.getPractitioner().getId();
+            patientId = therapyPlan.getPatient().getId();
+        }
+    }
+
     public Long getId() { return id; }
     public TherapyPlan getTherapyPlan() { return therapyPlan; }
+    public Long getPractitionerId() { return practitionerId; }
+    public Long getPatientId() { return patientId; }
     public String getProcedureName() { return procedureName; }
     public java.time.LocalDateTime getScheduledDate() { return scheduledDate; }
     public String getNotes() { return notes; }
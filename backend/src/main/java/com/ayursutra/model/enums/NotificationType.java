@@ -0,0 +1,10 @@
+package com.ayursutra.model.enums;
+
+public enum NotificationType {
+    WELCOME,
+    SESSION_REMINDER,
+    SCHEDULE_SUMMARY,
+    PRE_PROCEDURE,
+    POST_PROCEDURE,
+    FEEDBACK_REMINDER
+}
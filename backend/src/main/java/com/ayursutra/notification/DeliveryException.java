@@ -0,0 +1,24 @@
+package com.ayursutra.notification;
+
+/**
+ * A failed delivery. Retryable failures (connection problems, busy domains) are attempted again
+ * later; permanent ones (rejected recipients) are not.
+ */
+public class DeliveryException extends Exception {
+
+    private final boolean retryable;
+
+    public DeliveryException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public DeliveryException(String message, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ayursutra.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Development channel: "delivers" by logging. Active unless another channel is configured.
+ */
+@Component
+@ConditionalOnProperty(name = "app.notifications.channel", havingValue = "log", matchIfMissing = true)
+public class LoggingNotificationChannel implements NotificationChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingNotificationChannel.class);
+
+    @Override
+    public void deliver(OutgoingMessage message) {
+        log.info("📧 MOCK EMAIL SENT to {} <{}>: {}",
+                message.getRecipientName(), message.getRecipientEmail(), message.getSubject());
+        log.debug("Body:\n{}", message.getBody());
+    }
+}
@@ -0,0 +1,10 @@
+package com.ayursutra.notification;
+
+/**
+ * Delivers a rendered notification to its recipient. Implementations must be thread-safe:
+ * the dispatcher calls them from several delivery threads at once.
+ */
+public interface NotificationChannel {
+
+    void deliver(OutgoingMessage message) throws DeliveryException;
+}
@@ -0,0 +1,13 @@
+package com.ayursutra.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OutgoingMessage {
+    private final String recipientEmail;
+    private final String recipientName;
+    private final String subject;
+    private final String body;
+}
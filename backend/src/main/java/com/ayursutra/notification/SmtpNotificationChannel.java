@@ -0,0 +1,187 @@
+package com.ayursutra.notification;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.*;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.*;
+
+/**
+ * SMTP delivery over a pool of persistent connections. Each send borrows an open transport,
+ * writes the message on it and returns it, so consecutive messages share a connection instead of
+ * paying the connect/EHLO/AUTH handshake each time. Concurrent sends to one recipient domain are
+ * capped so a burst (a clinic's morning reminders) does not trip the receiving server's limits.
+ */
+@Component
+@ConditionalOnProperty(name = "app.notifications.channel", havingValue = "smtp")
+public class SmtpNotificationChannel implements NotificationChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(SmtpNotificationChannel.class);
+
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final InternetAddress from;
+    private final int perDomainConcurrency;
+    private final long waitMs;
+
+    private final BlockingQueue<Transport> idle;
+    private final Semaphore connections;
+    private final Map<String, Semaphore> domainPermits = new ConcurrentHashMap<>();
+    private final Timer sendTimer;
+
+    public SmtpNotificationChannel(MeterRegistry meterRegistry,
+                                   @Value("${app.notifications.smtp.host}") String host,
+                                   @Value("${app.notifications.smtp.port:587}") int port,
+                                   @Value("${app.notifications.smtp.username:}") String username,
+                                   @Value("${app.notifications.smtp.password:}") String password,
+                                   @Value("${app.notifications.smtp.starttls:true}") boolean starttls,
+                                   @Value("${app.notifications.smtp.from}") String from,
+                                   @Value("${app.notifications.smtp.pool-size:4}") int poolSize,
+                                   @Value("${app.notifications.smtp.per-domain-concurrency:2}") int perDomainConcurrency,
+                                   @Value("${app.notifications.smtp.wait-ms:10000}") long waitMs)
+            throws UnsupportedEncodingException {
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.from = new InternetAddress(from, "AyurSutra", StandardCharsets.UTF_8.name());
+        this.perDomainConcurrency = perDomainConcurrency;
+        this.waitMs = waitMs;
+
+        Properties props = new Properties();
+        props.put("mail.smtp.auth", String.valueOf(!username.isEmpty()));
+        props.put("mail.smtp.starttls.enable", String.valueOf(starttls));
+        props.put("mail.smtp.connectiontimeout", "10000");
+        props.put("mail.smtp.timeout", "30000");
+        this.session = Session.getInstance(props);
+
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+        this.connections = new Semaphore(poolSize);
+
+        this.sendTimer = Timer.builder("notifications.smtp.send").register(meterRegistry);
+        Gauge.builder("notifications.smtp.idle-connections", idle, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @Override
+    public void deliver(OutgoingMessage message) throws DeliveryException {
+        String domain = domainOf(message.getRecipientEmail());
+        Semaphore permits = domainPermits.computeIfAbsent(domain, d -> new Semaphore(perDomainConcurrency));
+        if (!tryAcquire(permits)) {
+            throw new DeliveryException("Too many concurrent deliveries to " + domain, true);
+        }
+        try {
+            MimeMessage mime = toMimeMessage(message);
+            Transport transport = borrow();
+            boolean reusable = false;
+            long start = System.nanoTime();
+            try {
+                transport.sendMessage(mime, mime.getAllRecipients());
+                reusable = true;
+            } catch (SendFailedException e) {
+                // The server answered, so the connection is still good; rejected addresses won't improve
+                reusable = true;
+                boolean rejected = e.getInvalidAddresses() != null && e.getInvalidAddresses().length > 0;
+                throw new DeliveryException("SMTP send failed for " + message.getRecipientEmail(), !rejected, e);
+            } catch (MessagingException e) {
+                throw new DeliveryException("SMTP connection failed", true, e);
+            } finally {
+                sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                release(transport, reusable);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutgoingMessage message) throws DeliveryException {
+        try {
+            MimeMessage mime = new MimeMessage(session);
+            mime.setFrom(from);
+            mime.setRecipient(Message.RecipientType.TO,
+                    new InternetAddress(message.getRecipientEmail(), message.getRecipientName(), StandardCharsets.UTF_8.name()));
+            mime.setSubject(message.getSubject(), StandardCharsets.UTF_8.name());
+            mime.setText(message.getBody(), StandardCharsets.UTF_8.name());
+            mime.saveChanges();
+            return mime;
+        } catch (MessagingException | UnsupportedEncodingException e) {
+            throw new DeliveryException("Invalid message for " + message.getRecipientEmail(), false, e);
+        }
+    }
+
+    // Takes an idle connection or opens a new one; at most pool-size connections exist at a time
+    private Transport borrow() throws DeliveryException {
+        if (!tryAcquire(connections)) {
+            throw new DeliveryException("No SMTP connection available", true);
+        }
+        Transport transport = idle.poll();
+        try {
+            if (transport == null || !transport.isConnected()) {
+                close(transport);
+                transport = session.getTransport("smtp");
+                transport.connect(host, port, username.isEmpty() ? null : username, password.isEmpty() ? null : password);
+            }
+            return transport;
+        } catch (MessagingException e) {
+            close(transport);
+            connections.release();
+            throw new DeliveryException("Could not connect to SMTP server " + host, true, e);
+        }
+    }
+
+    private void release(Transport transport, boolean reusable) {
+        if (!reusable || !idle.offer(transport)) {
+            close(transport);
+        }
+        connections.release();
+    }
+
+    private boolean tryAcquire(Semaphore semaphore) throws DeliveryException {
+        try {
+            return semaphore.tryAcquire(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeliveryException("Interrupted while waiting to send", true, e);
+        }
+    }
+
+    private static String domainOf(String email) {
+        int at = email.lastIndexOf('@');
+        return at >= 0 ? email.substring(at + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static void close(Transport transport) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        Transport transport;
+        while ((transport = idle.poll()) != null) {
+            close(transport);
+        }
+    }
+}
@@ -1,18 +1,44 @@
 package com.ayursutra.repository;
 
+import com.ayursutra.dto.FeedbackResponse;
 import com.ayursutra.model.Feedback;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
+    @EntityGraph(attributePaths = {"session", "patient"})
     Optional<Feedback> findBySessionId(Long sessionId);
 
-    List<Feedback> findByPatientId(Long patientId);
+    boolean existsBySessionId(Long sessionId);
 
-    @Query("SELECT f FROM Feedback f WHERE f.session.therapyPlan.practitioner.id = :practitionerId ORDER BY f.createdAt DESC")
-    List<Feedback> findByPractitionerId(@Param("practitionerId") Long practitionerId);
+    @Query("SELECT f FROM Feedback f JOIN FETCH f.session JOIN FETCH f.patient WHERE f.session.id IN :sessionIds")
+    List<Feedback> findBySessionIdIn(@Param("sessionIds") Collection<Long> sessionIds);
+
+    @Query("SELECT new com.ayursutra.dto.FeedbackResponse(f.id, s.id, s.procedureName, pt.name, f.message, f.rating, f.createdAt) " +
+           "FROM Feedback f JOIN f.session s JOIN f.patient pt " +
+           "WHERE f.practitionerId = :practitionerId ORDER BY f.createdAt DESC, f.id DESC")
+    List<FeedbackResponse> findResponsesByPractitionerId(@Param("practitionerId") Long practitionerId, Pageable pageable);
+
+    @Query("SELECT new com.ayursutra.dto.FeedbackResponse(f.id, s.id, s.procedureName, pt.name, f.message, f.rating, f.createdAt) " +
+           "FROM Feedback f JOIN f.session s JOIN f.patient pt " +
+           "WHERE f.practitionerId = :practitionerId " +
+           "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FeedbackResponse> findResponsesByPractitionerIdAfter(@Param("practitionerId") Long practitionerId,
+                                                              @Param("createdAt") LocalDateTime createdAt,
+                                                              @Param("id") Long id,
+                                                              Pageable pageable);
+
+    @Query("SELECT new com.ayursutra.dto.FeedbackResponse(f.id, s.id, s.procedureName, pt.name, f.message, f.rating, " +
+           "f.symptoms, f.sideEffects, f.improvementLevel, f.createdAt) " +
+           "FROM Feedback f JOIN f.session s JOIN f.patient pt WHERE s.id IN :sessionIds")
+    List<FeedbackResponse> findResponsesBySessionIdIn(@Param("sessionIds") Collection<Long> sessionIds);
 }
@@ -0,0 +1,53 @@
+package com.ayursutra.repository;
+
+import com.ayursutra.model.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    @Query("SELECT o.id FROM NotificationOutbox o WHERE o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt, o.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Only rows that are still due are taken, so two dispatchers never claim the same event
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.claimToken = :token, o.nextAttemptAt = :leaseUntil " +
+           "WHERE o.id IN :ids AND o.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("token") String token,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<NotificationOutbox> findByClaimToken(String claimToken);
+
+    // Events still held under the claim, locked so no other dispatcher can take them over
+    // before the results are recorded
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM NotificationOutbox o WHERE o.claimToken = :token")
+    List<NotificationOutbox> findForUpdateByClaimToken(@Param("token") String token);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.nextAttemptAt = :leaseUntil WHERE o.claimToken = :token")
+    int renewLease(@Param("token") String token, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.attempts = :attempts, o.nextAttemptAt = :nextAttemptAt, " +
+           "o.claimToken = NULL WHERE o.id = :id AND o.claimToken = :token")
+    int reschedule(@Param("id") Long id,
+                   @Param("token") String token,
+                   @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.id IN :ids AND o.claimToken = :token")
+    int deleteClaimed(@Param("ids") Collection<Long> ids, @Param("token") String token);
+}
@@ -1,10 +1,27 @@
 package com.ayursutra.repository;
 
+import com.ayursutra.dto.NotificationRow;
 import com.ayursutra.model.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    @Query("SELECT new com.ayursutra.dto.NotificationRow(n.id, n.type, n.args, n.subject, n.body, n.sent, n.createdAt) " +
+           "FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationRow> findRowsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.ayursutra.dto.NotificationRow(n.id, n.type, n.args, n.subject, n.body, n.sent, n.createdAt) " +
+           "FROM Notification n WHERE n.user.id = :userId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationRow> findRowsByUserIdAfter(@Param("userId") Long userId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
 }
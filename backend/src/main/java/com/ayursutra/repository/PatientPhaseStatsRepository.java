@@ -0,0 +1,44 @@
+package com.ayursutra.repository;
+
+import com.ayursutra.model.PatientPhaseStats;
+import com.ayursutra.model.enums.Phase;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface PatientPhaseStatsRepository extends JpaRepository<PatientPhaseStats, PatientPhaseStats.Key> {
+
+    List<PatientPhaseStats> findByPatientId(Long patientId);
+
+    @Modifying
+    @Query("UPDATE PatientPhaseStats s SET s.totalSessions = s.totalSessions + :total, " +
+           "s.completedSessions = s.completedSessions + :completed, s.upcomingSessions = s.upcomingSessions + :upcoming, " +
+           "s.pendingFeedback = s.pendingFeedback + :pending WHERE s.patientId = :patientId AND s.phase = :phase")
+    int applyDelta(@Param("patientId") Long patientId,
+                   @Param("phase") Phase phase,
+                   @Param("total") long total,
+                   @Param("completed") long completed,
+                   @Param("upcoming") long upcoming,
+                   @Param("pending") long pending);
+
+    // Blocks concurrent deltas on the patient's rows until the caller's transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM PatientPhaseStats s WHERE s.patientId = :patientId")
+    List<PatientPhaseStats> findForUpdate(@Param("patientId") Long patientId);
+
+    // Plain insert (no merge): fails with a key violation if another transaction seeded the row first
+    @Modifying
+    @Query("INSERT INTO PatientPhaseStats (patientId, phase, totalSessions, completedSessions, upcomingSessions, pendingFeedback) " +
+           "VALUES (:patientId, :phase, :total, :completed, :upcoming, :pending)")
+    int insert(@Param("patientId") Long patientId,
+               @Param("phase") Phase phase,
+               @Param("total") long total,
+               @Param("completed") long completed,
+               @Param("upcoming") long upcoming,
+               @Param("pending") long pending);
+}
@@ -1,8 +1,13 @@
 package com.ayursutra.repository;
 
+import com.ayursutra.dto.PatientProfileResponse;
 import com.ayursutra.model.PatientProfile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface PatientProfileRepository extends JpaRepository<PatientProfile, Long> {
@@ -10,6 +15,22 @@ public interface PatientProfileRepository extends JpaRepository<PatientProfile,
 
     boolean existsByUserId(Long userId);
 
-    @org.springframework.data.jpa.repository.Query("SELECT p FROM PatientProfile p WHERE p.practitioner.id = :practitionerId")
-    java.util.List<PatientProfile> findByPractitionerId(@org.springframework.data.repository.query.Param("practitionerId") Long practitionerId);
+    @Query("SELECT new com.ayursutra.dto.PatientProfileResponse(p.id, u.id, u.name, u.email, p.prakriti, p.age, p.gender, " +
+           "p.bloodGroup, p.emergencyContact, p.medicalHistory, p.notes, pr.name, pr.id) " +
+           "FROM PatientProfile p JOIN p.user u JOIN p.practitioner pr WHERE pr.id = :practitionerId ORDER BY p.id")
+    List<PatientProfileResponse> findResponsesByPractitionerId(@Param("practitionerId") Long practitionerId, Pageable pageable);
+
+    @Query("SELECT new com.ayursutra.dto.PatientProfileResponse(p.id, u.id, u.name, u.email, p.prakriti, p.age, p.gender, " +
+           "p.bloodGroup, p.emergencyContact, p.medicalHistory, p.notes, pr.name, pr.id) " +
+           "FROM PatientProfile p JOIN p.user u JOIN p.practitioner pr WHERE pr.id = :practitionerId AND p.id > :id ORDER BY p.id")
+    List<PatientProfileResponse> findResponsesByPractitionerIdAfter(@Param("practitionerId") Long practitionerId,
+                                                                    @Param("id") Long id,
+                                                                    Pageable pageable);
+
+    @Query("SELECT new com.ayursutra.dto.PatientProfileResponse(p.id, u.id, u.name, u.email, p.prakriti, p.age, p.gender, " +
+           "p.bloodGroup, p.emergencyContact, p.medicalHistory, p.notes, pr.name, pr.id) " +
+           "FROM PatientProfile p JOIN p.user u JOIN p.practitioner pr WHERE pr.id = :practitionerId ORDER BY p.id DESC")
+    List<PatientProfileResponse> findRecentResponsesByPractitionerId(@Param("practitionerId") Long practitionerId, Pageable pageable);
+
+    long countByPractitionerId(Long practitionerId);
 }
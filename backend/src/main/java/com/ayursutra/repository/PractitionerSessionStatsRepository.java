@@ -0,0 +1,39 @@
+package com.ayursutra.repository;
+
+import com.ayursutra.model.PractitionerSessionStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface PractitionerSessionStatsRepository extends JpaRepository<PractitionerSessionStats, Long> {
+
+    @Modifying
+    @Query("UPDATE PractitionerSessionStats s SET s.totalSessions = s.totalSessions + :total, " +
+           "s.completedSessions = s.completedSessions + :completed, s.upcomingSessions = s.upcomingSessions + :upcoming, " +
+           "s.pendingFeedback = s.pendingFeedback + :pending WHERE s.practitionerId = :practitionerId")
+    int applyDelta(@Param("practitionerId") Long practitionerId,
+                   @Param("total") long total,
+                   @Param("completed") long completed,
+                   @Param("upcoming") long upcoming,
+                   @Param("pending") long pending);
+
+    // Blocks concurrent deltas on the row until the caller's transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM PractitionerSessionStats s WHERE s.practitionerId = :practitionerId")
+    Optional<PractitionerSessionStats> findForUpdate(@Param("practitionerId") Long practitionerId);
+
+    // Plain insert (no merge): fails with a key violation if another transaction seeded the row first
+    @Modifying
+    @Query("INSERT INTO PractitionerSessionStats (practitionerId, totalSessions, completedSessions, upcomingSessions, pendingFeedback) " +
+           "VALUES (:practitionerId, :total, :completed, :upcoming, :pending)")
+    int insert(@Param("practitionerId") Long practitionerId,
+               @Param("total") long total,
+               @Param("completed") long completed,
+               @Param("upcoming") long upcoming,
+               @Param("pending") long pending);
+}
@@ -0,0 +1,26 @@
+package com.ayursutra.repository;
+
+import com.ayursutra.model.SessionReminder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SessionReminderRepository extends JpaRepository<SessionReminder, Long> {
+
+    @Query("SELECT r FROM SessionReminder r WHERE r.dueAt < :before ORDER BY r.dueAt, r.id")
+    List<SessionReminder> findDueBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    // Firing deletes the row; only the caller that gets 1 back sends the reminder
+    @Modifying
+    @Query("DELETE FROM SessionReminder r WHERE r.id = :id")
+    int claim(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM SessionReminder r WHERE r.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") Long sessionId);
+}
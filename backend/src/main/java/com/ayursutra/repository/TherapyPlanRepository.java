@@ -1,11 +1,42 @@
 package com.ayursutra.repository;
 
+import com.ayursutra.dto.TherapyPlanResponse;
 import com.ayursutra.model.TherapyPlan;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface TherapyPlanRepository extends JpaRepository<TherapyPlan, Long> {
+    @EntityGraph(attributePaths = {"patient", "practitioner"})
     List<TherapyPlan> findByPatientId(Long patientId);
+
+    @EntityGraph(attributePaths = {"patient", "practitioner"})
     List<TherapyPlan> findByPractitionerId(Long practitionerId);
+
+    @EntityGraph(attributePaths = {"patient", "practitioner"})
+    Optional<TherapyPlan> findWithParticipantsById(Long id);
+
+    @Query("SELECT new com.ayursutra.dto.TherapyPlanResponse(tp.id, pt.id, pt.name, pr.id, pr.name, tp.phase, " +
+           "tp.description, tp.startDate, tp.endDate) " +
+           "FROM TherapyPlan tp JOIN tp.patient pt JOIN tp.practitioner pr WHERE pr.id = :practitionerId ORDER BY tp.id DESC")
+    List<TherapyPlanResponse> findResponsesByPractitionerId(@Param("practitionerId") Long practitionerId, Pageable pageable);
+
+    @Query("SELECT new com.ayursutra.dto.TherapyPlanResponse(tp.id, pt.id, pt.name, pr.id, pr.name, tp.phase, " +
+           "tp.description, tp.startDate, tp.endDate) " +
+           "FROM TherapyPlan tp JOIN tp.patient pt JOIN tp.practitioner pr " +
+           "WHERE pr.id = :practitionerId AND tp.id < :id ORDER BY tp.id DESC")
+    List<TherapyPlanResponse> findResponsesByPractitionerIdAfter(@Param("practitionerId") Long practitionerId,
+                                                                 @Param("id") Long id,
+                                                                 Pageable pageable);
+
+    @Query("SELECT DISTINCT tp.practitioner.id FROM TherapyPlan tp")
+    List<Long> findDistinctPractitionerIds();
+
+    @Query("SELECT DISTINCT tp.patient.id FROM TherapyPlan tp")
+    List<Long> findDistinctPatientIds();
 }
@@ -1,26 +1,89 @@
 package com.ayursutra.repository;
 
+import com.ayursutra.dto.DashboardCounts;
+import com.ayursutra.dto.PhaseCounts;
+import com.ayursutra.dto.SessionSlot;
+import com.ayursutra.dto.TherapySessionResponse;
 import com.ayursutra.model.TherapySession;
 import com.ayursutra.model.enums.SessionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TherapySessionRepository extends JpaRepository<TherapySession, Long> {
-    List<TherapySession> findByTherapyPlanId(Long therapyPlanId);
+    @EntityGraph(attributePaths = {"therapyPlan", "therapyPlan.patient", "therapyPlan.practitioner"})
+    Optional<TherapySession> findWithPlanById(Long id);
 
-    @Query("SELECT s FROM TherapySession s WHERE s.therapyPlan.patient.id = :patientId ORDER BY s.scheduledDate ASC")
-    List<TherapySession> findByPatientId(@Param("patientId") Long patientId);
+    @EntityGraph(attributePaths = {"therapyPlan", "therapyPlan.patient", "therapyPlan.practitioner"})
+    List<TherapySession> findWithPlanByIdIn(Collection<Long> ids);
 
-    @Query("SELECT s FROM TherapySession s WHERE s.therapyPlan.practitioner.id = :practitionerId AND s.status = :status ORDER BY s.scheduledDate ASC")
-    List<TherapySession> findByPractitionerIdAndStatus(@Param("practitionerId") Long practitionerId, @Param("status") SessionStatus status);
+    @Query("SELECT new com.ayursutra.dto.SessionSlot(s.id, s.scheduledDate, s.procedureName) " +
+           "FROM TherapySession s WHERE s.practitionerId = :practitionerId AND s.status = :status " +
+           "AND s.scheduledDate >= :from")
+    List<SessionSlot> findSlotsByPractitionerIdAndStatusFrom(@Param("practitionerId") Long practitionerId,
+                                                             @Param("status") SessionStatus status,
+                                                             @Param("from") LocalDateTime from);
 
-    @Query("SELECT s FROM TherapySession s WHERE s.therapyPlan.practitioner.id = :practitionerId ORDER BY s.scheduledDate ASC")
-    List<TherapySession> findByPractitionerId(@Param("practitionerId") Long practitionerId);
+    @Query("SELECT new com.ayursutra.dto.SessionSlot(s.id, s.scheduledDate, s.procedureName) " +
+           "FROM TherapySession s WHERE s.practitionerId = :practitionerId AND s.status = :status " +
+           "AND s.scheduledDate BETWEEN :from AND :to ORDER BY s.scheduledDate")
+    List<SessionSlot> findSlotsByPractitionerIdAndStatusBetween(@Param("practitionerId") Long practitionerId,
+                                                                @Param("status") SessionStatus status,
+                                                                @Param("from") LocalDateTime from,
+                                                                @Param("to") LocalDateTime to);
 
-    @Query("SELECT s FROM TherapySession s WHERE s.therapyPlan.practitioner.id = :practitionerId AND s.scheduledDate BETWEEN :start AND :end AND s.status = 'SCHEDULED'")
-    List<TherapySession> findConflictingSessions(@Param("practitionerId") Long practitionerId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    @Query("SELECT new com.ayursutra.dto.TherapySessionResponse(s.id, tp.id, tp.phase, s.procedureName, s.scheduledDate, " +
+           "s.notes, s.status, pr.name, pt.name) " +
+           "FROM TherapySession s JOIN s.therapyPlan tp JOIN tp.practitioner pr JOIN tp.patient pt " +
+           "WHERE s.patientId = :patientId ORDER BY s.scheduledDate ASC, s.id ASC")
+    List<TherapySessionResponse> findResponsesByPatientId(@Param("patientId") Long patientId);
+
+    @Query("SELECT new com.ayursutra.dto.TherapySessionResponse(s.id, tp.id, tp.phase, s.procedureName, s.scheduledDate, " +
+           "s.notes, s.status, pr.name, pt.name) " +
+           "FROM TherapySession s JOIN s.therapyPlan tp JOIN tp.practitioner pr JOIN tp.patient pt " +
+           "WHERE s.patientId = :patientId ORDER BY s.scheduledDate ASC, s.id ASC")
+    List<TherapySessionResponse> findResponsesByPatientId(@Param("patientId") Long patientId, Pageable pageable);
+
+    @Query("SELECT new com.ayursutra.dto.TherapySessionResponse(s.id, tp.id, tp.phase, s.procedureName, s.scheduledDate, " +
+           "s.notes, s.status, pr.name, pt.name) " +
+           "FROM TherapySession s JOIN s.therapyPlan tp JOIN tp.practitioner pr JOIN tp.patient pt " +
+           "WHERE s.patientId = :patientId " +
+           "AND (s.scheduledDate > :scheduledDate OR (s.scheduledDate = :scheduledDate AND s.id > :id)) " +
+           "ORDER BY s.scheduledDate ASC, s.id ASC")
+    List<TherapySessionResponse> findResponsesByPatientIdAfter(@Param("patientId") Long patientId,
+                                                               @Param("scheduledDate") LocalDateTime scheduledDate,
+                                                               @Param("id") Long id,
+                                                               Pageable pageable);
+
+    @Query("SELECT new com.ayursutra.dto.TherapySessionResponse(s.id, tp.id, tp.phase, s.procedureName, s.scheduledDate, " +
+           "s.notes, s.status, pr.name, pt.name) " +
+           "FROM TherapySession s JOIN s.therapyPlan tp JOIN tp.practitioner pr JOIN tp.patient pt " +
+           "WHERE s.practitionerId = :practitionerId AND s.status = :status ORDER BY s.scheduledDate ASC, s.id ASC")
+    List<TherapySessionResponse> findResponsesByPractitionerIdAndStatus(@Param("practitionerId") Long practitionerId,
+                                                                        @Param("status") SessionStatus status,
+                                                                        Pageable pageable);
+
+    // Pending feedback is an anti-join: completed sessions with no matching feedback row
+    @Query("SELECT new com.ayursutra.dto.DashboardCounts(COUNT(s), " +
+           "SUM(CASE WHEN s.status = com.ayursutra.model.enums.SessionStatus.COMPLETED THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN s.status = com.ayursutra.model.enums.SessionStatus.SCHEDULED THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN s.status = com.ayursutra.model.enums.SessionStatus.COMPLETED AND f.id IS NULL THEN 1L ELSE 0L END)) " +
+           "FROM TherapySession s LEFT JOIN Feedback f ON f.session = s " +
+           "WHERE s.practitionerId = :practitionerId")
+    DashboardCounts countDashboard(@Param("practitionerId") Long practitionerId);
+
+    @Query("SELECT new com.ayursutra.dto.PhaseCounts(tp.phase, COUNT(s), " +
+           "SUM(CASE WHEN s.status = com.ayursutra.model.enums.SessionStatus.COMPLETED THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN s.status = com.ayursutra.model.enums.SessionStatus.SCHEDULED THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN s.status = com.ayursutra.model.enums.SessionStatus.COMPLETED AND f.id IS NULL THEN 1L ELSE 0L END)) " +
+           "FROM TherapySession s JOIN s.therapyPlan tp LEFT JOIN Feedback f ON f.session = s " +
+           "WHERE s.patientId = :patientId GROUP BY tp.phase")
+    List<PhaseCounts> countByPhaseForPatient(@Param("patientId") Long patientId);
 }
@@ -0,0 +1,14 @@
+package com.ayursutra.repository;
+
+import com.ayursutra.model.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Loads a user by email through the natural-id cache, so repeated lookups (login, token
+     * authentication) are served from the second-level cache instead of a query.
+     */
+    Optional<User> findByEmail(String email);
+}
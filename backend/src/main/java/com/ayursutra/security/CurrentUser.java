@@ -0,0 +1,14 @@
+package com.ayursutra.security;
+
+import java.lang.annotation.*;
+
+/**
+ * Injects the authenticated user into a controller method parameter, either as the user id
+ * ({@code Long}) or as the {@link CustomUserDetails} principal. The value comes from the
+ * security context populated by {@link JwtAuthenticationFilter}; the token is not re-parsed.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
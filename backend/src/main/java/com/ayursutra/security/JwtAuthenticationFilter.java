@@ -1,10 +1,14 @@
 package com.ayursutra.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -12,16 +16,30 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Verified claims of the authenticated request's token, for endpoints that need more than the user id
+    public static final String CLAIMS_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".claims";
+
+    private static final String STREAM_PATH = "/api/stream";
+    private static final String STREAM_TOKEN_PARAM = "access_token";
+
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
+    private final boolean stateless;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+                                   CustomUserDetailsService userDetailsService,
+                                   TokenVersionCache tokenVersionCache,
+                                   @Value("${app.security.stateless:false}") boolean stateless) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionCache = tokenVersionCache;
+        this.stateless = stateless;
     }
 
     @Override
@@ -29,25 +47,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        final String authHeader = request.getHeader("Authorization");
+        final String bearer = bearerToken(request);
+        final String streamToken = bearer == null && STREAM_PATH.equals(request.getServletPath())
+                ? request.getParameter(STREAM_TOKEN_PARAM)
+                : null;
+        final String jwt = bearer != null ? bearer : streamToken;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (jwt == null) {
             filterChain.doFilter(request, response);
             return;
         }
+        if (streamToken != null) {
+            request = new MaskedStreamTokenRequest(request);
+        }
 
         try {
-            final String jwt = authHeader.substring(7);
-            final String email = jwtUtil.extractEmail(jwt);
+            final Claims claims = jwtUtil.parseClaims(jwt);
+            final String email = claims.getSubject();
+
+            // Stream tokens only ever open the stream, and only they may travel in its URL
+            if (jwtUtil.isStreamToken(claims) != (streamToken != null)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
 
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                UserDetails userDetails = stateless
+                        ? principalFromClaims(claims)
+                        : userDetailsService.loadUserByUsername(email);
 
-                if (jwtUtil.isTokenValid(jwt, userDetails)) {
+                if (userDetails != null && jwtUtil.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    request.setAttribute(CLAIMS_ATTRIBUTE, claims);
                 }
             }
         } catch (Exception e) {
@@ -56,4 +90,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private static String bearerToken(HttpServletRequest request) {
+        final String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        return null;
+    }
+
+    // Stateless mode: rebuild the principal from the verified claims instead of a users lookup
+    private UserDetails principalFromClaims(Claims claims) {
+        Long userId = claims.get("userId", Long.class);
+        String role = claims.get("role", String.class);
+        if (role == null || !tokenVersionCache.isCurrent(userId, jwtUtil.extractTokenVersion(claims))) {
+            return null;
+        }
+        return new CustomUserDetails(
+                claims.getSubject(),
+                "",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)),
+                userId
+        );
+    }
+
+    /**
+     * EventSource cannot set headers, so the stream token comes in the query string. It is masked
+     * there for everything downstream that logs the request URL.
+     */
+    private static final class MaskedStreamTokenRequest extends HttpServletRequestWrapper {
+
+        private MaskedStreamTokenRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getQueryString() {
+            String query = super.getQueryString();
+            return query != null
+                    ? query.replaceAll("(^|&)" + STREAM_TOKEN_PARAM + "=[^&]*", "$1" + STREAM_TOKEN_PARAM + "=***")
+                    : null;
+        }
+    }
 }
@@ -1,41 +1,147 @@
 package com.ayursutra.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    private static final String STREAM_SCOPE = "stream";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration-ms}")
     private long jwtExpirationMs;
 
-    public String generateToken(String email, Long userId, String role) {
+    @Value("${app.jwt.stream-expiration-ms:60000}")
+    private long streamExpirationMs;
+
+    @Value("${app.jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    private final MeterRegistry meterRegistry;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Timer verifyTimer;
+
+    // Verified claims keyed by SHA-256 of the compact token; entries expire with the token itself
+    private Cache<String, Claims> verifiedTokens;
+
+    public JwtUtil(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(
+                Base64.getEncoder().encodeToString(jwtSecret.getBytes())
+        );
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parser().verifyWith(signingKey).build();
+
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified-tokens");
+
+        verifyTimer = Timer.builder("jwt.verify")
+                .description("Time spent verifying JWT signatures on a cache miss")
+                .register(meterRegistry);
+    }
+
+    public String generateToken(String email, Long userId, String role, int tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("role", role);
+        claims.put("ver", tokenVersion);
 
         return Jwts.builder()
                 .claims(claims)
                 .subject(email)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Issues a token that only opens the event stream ({@code scope=stream}). It is short-lived
+     * because it travels in the stream URL, and carries the expiry of the session token it was
+     * issued from, which also bounds how long the stream may stay open.
+     */
+    public String generateStreamToken(Claims session) {
+        long now = System.currentTimeMillis();
+        long sessionExpiresAt = session.getExpiration().getTime();
+        return Jwts.builder()
+                .subject(session.getSubject())
+                .claim("userId", session.get("userId", Long.class))
+                .claim("role", session.get("role", String.class))
+                .claim("ver", extractTokenVersion(session))
+                .claim("scope", STREAM_SCOPE)
+                .claim("sessionExp", sessionExpiresAt)
+                .issuedAt(new Date(now))
+                .expiration(new Date(Math.min(now + streamExpirationMs, sessionExpiresAt)))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    public boolean isStreamToken(Claims claims) {
+        return STREAM_SCOPE.equals(claims.get("scope", String.class));
+    }
+
+    /**
+     * When the signed-in session behind the token ends: the token's own expiry, or for a stream
+     * token the expiry of the session token it was issued from.
+     */
+    public long sessionExpiresAt(Claims claims) {
+        Long sessionExp = claims.get("sessionExp", Long.class);
+        return sessionExp != null ? sessionExp : claims.getExpiration().getTime();
+    }
+
+    public long getStreamExpirationMs() {
+        return streamExpirationMs;
+    }
+
+    /**
+     * Verifies the token once and returns its claims. Repeated calls for the same token
+     * are served from the verified-token cache until the token expires.
+     */
+    public Claims parseClaims(String token) {
+        String key = tokenHash(token);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (claims == null) {
+            claims = verifyTimer.record(() -> parser.parseSignedClaims(token).getPayload());
+            verifiedTokens.put(key, claims);
+        }
+        return claims;
+    }
+
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -48,28 +154,51 @@ public class JwtUtil {
         return extractClaim(token, claims -> claims.get("role", String.class));
     }
 
+    public Integer extractTokenVersion(Claims claims) {
+        return claims.get("ver", Integer.class);
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String email = extractEmail(token);
-        return email.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return isTokenValid(parseClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
+    }
+
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     private <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        final Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return resolver.apply(claims);
+        return resolver.apply(parseClaims(token));
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(
-                java.util.Base64.getEncoder().encodeToString(jwtSecret.getBytes())
-        );
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String tokenHash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,51 @@
+package com.ayursutra.security;
+
+import com.ayursutra.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of each user's current token version, used by stateless authentication
+ * to reject tokens issued before a role change or account revocation. A stale entry lives
+ * at most {@code app.security.token-version-ttl-seconds}.
+ */
+@Component
+public class TokenVersionCache {
+
+    private final LoadingCache<Long, Optional<Integer>> versions;
+
+    public TokenVersionCache(UserRepository userRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.security.token-version-ttl-seconds:30}") long ttlSeconds,
+                             @Value("${app.security.token-version-cache-size:10000}") long maxSize) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(userRepository::findTokenVersionById);
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "security.token-versions");
+    }
+
+    /**
+     * Returns true if the user still exists and the token carries their current version.
+     */
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        if (userId == null || tokenVersion == null) {
+            return false;
+        }
+        return versions.get(userId)
+                .map(current -> current.equals(tokenVersion))
+                .orElse(false);
+    }
+
+    public void evict(Long userId) {
+        versions.invalidate(userId);
+    }
+}
@@ -5,29 +5,25 @@ import com.ayursutra.exception.BadRequestException;
 import com.ayursutra.model.User;
 import com.ayursutra.repository.UserRepository;
 import com.ayursutra.security.JwtUtil;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.ayursutra.security.PasswordHasher;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
-    private final AuthenticationManager authenticationManager;
     private final NotificationService notificationService;
 
     public AuthService(UserRepository userRepository,
-                       PasswordEncoder passwordEncoder,
+                       PasswordHasher passwordHasher,
                        JwtUtil jwtUtil,
-                       AuthenticationManager authenticationManager,
                        NotificationService notificationService) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.jwtUtil = jwtUtil;
-        this.authenticationManager = authenticationManager;
         this.notificationService = notificationService;
     }
 
@@ -39,7 +35,7 @@ public class AuthService {
         User user = User.builder()
                 .name(request.getName())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHasher.encode(request.getPassword()))
                 .role(request.getRole())
                 .build();
 
@@ -47,7 +43,7 @@ public class AuthService {
 
         notificationService.sendWelcomeNotification(user);
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().name());
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().name(), user.getTokenVersion());
 
         return AuthResponse.builder()
                 .token(token)
@@ -59,14 +55,13 @@ public class AuthService {
     }
 
     public AuthResponse login(LoginRequest request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
-
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new BadRequestException("Invalid credentials"));
+        // The lookup runs here; only the BCrypt comparison occupies the hashing pool
+        User user = userRepository.findByEmail(request.getEmail()).orElse(null);
+        if (!passwordHasher.matches(request.getPassword(), user != null ? user.getPassword() : null)) {
+            throw new BadCredentialsException("Bad credentials");
+        }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().name());
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().name(), user.getTokenVersion());
 
         return AuthResponse.builder()
                 .token(token)
@@ -0,0 +1,52 @@
+package com.ayursutra.service;
+
+import com.ayursutra.cache.Invalidation;
+import com.ayursutra.cache.InvalidationListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic per-user version of the data shown on a user's pages (their sessions, plans,
+ * feedback, patients and dashboard). Writes bump it through {@code DATA_VERSION} invalidations
+ * on the {@link com.ayursutra.cache.InvalidationBus}, and read endpoints turn it into an ETag, so
+ * an unchanged refresh is answered with 304 from one map lookup.
+ * <p>
+ * Versions are bumped after commit: a read that races a write can only be tagged with the older
+ * version, which costs the client one extra full response but never pins stale data. They live
+ * in memory, so the process start time is part of every tag and a restart invalidates them all.
+ */
+@Component
+public class DataVersions implements InvalidationListener {
+
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public long current(Long userId) {
+        AtomicLong version = versions.get(userId);
+        return version != null ? version.get() : 0;
+    }
+
+    /**
+     * Strong entity tag for the user's current data version.
+     */
+    public String etag(Long userId) {
+        return "\"" + epoch + "-" + userId + "-" + current(userId) + "\"";
+    }
+
+    @Override
+    public void onInvalidations(List<Invalidation> invalidations) {
+        for (Invalidation invalidation : invalidations) {
+            if (invalidation.getKind() == Invalidation.Kind.DATA_VERSION) {
+                bump(invalidation.getKey());
+            }
+        }
+    }
+
+    private void bump(long userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -0,0 +1,265 @@
+package com.ayursutra.service;
+
+import com.ayursutra.cache.Invalidation;
+import com.ayursutra.cache.InvalidationListener;
+import com.ayursutra.dto.TherapySessionResponse;
+import com.ayursutra.security.TokenVersionCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of server-sent events to the connected users.
+ * <p>
+ * Each connection holds no thread while idle (the emitter is a servlet async request). Events go
+ * into a bounded per-subscriber buffer that a small sender pool drains, one drain task per
+ * subscriber at a time, so a slow client never blocks the publisher or other subscribers. A
+ * subscriber whose buffer is full is dropped; the browser's EventSource reconnects and the UI
+ * reloads its state. Heartbeat comments keep proxies from closing idle streams and flush out dead
+ * connections. Each heartbeat also re-checks the subscriber's sign-in: a stream whose session
+ * token has expired, or whose user's tokens were revoked, is closed.
+ * <p>
+ * Subscriptions are per JVM. Writes also raise {@code SESSIONS_STREAM} and
+ * {@code NOTIFICATIONS_STREAM} invalidations on the {@link com.ayursutra.cache.InvalidationBus};
+ * when one arrives from another node, the user's streams here get the event with an empty
+ * payload ({@link #RELOAD}), and the client reloads what changed instead of applying it.
+ */
+@Component
+public class EventStreamHub implements InvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(EventStreamHub.class);
+
+    public static final String NOTIFICATION = "notification";
+    public static final String SESSIONS = "sessions";
+    // Payload of events relayed from another node, which does not carry the changed data
+    public static final Map<String, Object> RELOAD = Map.of();
+
+    private final TokenVersionCache tokenVersionCache;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connected = new AtomicInteger();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeat;
+    private final long timeoutMs;
+    private final int bufferSize;
+    private final Counter published;
+    private final Counter dropped;
+
+    public EventStreamHub(TokenVersionCache tokenVersionCache,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.stream.sender-threads:4}") int senderThreads,
+                          @Value("${app.stream.buffer-size:32}") int bufferSize,
+                          @Value("${app.stream.heartbeat-seconds:20}") long heartbeatSeconds,
+                          @Value("${app.stream.timeout-minutes:30}") long timeoutMinutes) {
+        this.tokenVersionCache = tokenVersionCache;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread t = new Thread(r, "stream-sender-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stream-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+
+        Gauge.builder("stream.subscribers", connected, AtomicInteger::get).register(meterRegistry);
+        this.published = Counter.builder("stream.events").tag("outcome", "queued").register(meterRegistry);
+        this.dropped = Counter.builder("stream.events").tag("outcome", "dropped").register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for the user, kept until {@code sessionExpiresAt} (epoch millis) at the latest
+     * and only while {@code tokenVersion} is the user's current token version.
+     */
+    public SseEmitter subscribe(Long userId, long sessionExpiresAt, Integer tokenVersion) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter, sessionExpiresAt, tokenVersion);
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        connected.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        // Flushes the response headers so the client sees the stream open straight away
+        subscriber.offer(SseEmitter.event().name("ready").data(userId));
+        return emitter;
+    }
+
+    public void publish(Long userId, String eventName, Object data) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.offer(SseEmitter.event().name(eventName).data(data));
+        }
+    }
+
+    /**
+     * Publishes once the surrounding transaction commits, so clients never refetch state that
+     * is not visible yet (or was rolled back).
+     */
+    public void publishAfterCommit(Long userId, String eventName, Object data) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(userId, eventName, data);
+                }
+            });
+        } else {
+            publish(userId, eventName, data);
+        }
+    }
+
+    /**
+     * Tells both participants that sessions were scheduled or changed status.
+     */
+    public void sessionsChangedAfterCommit(Long practitionerId, Long patientId, List<TherapySessionResponse> sessions) {
+        publishAfterCommit(practitionerId, SESSIONS, sessions);
+        publishAfterCommit(patientId, SESSIONS, sessions);
+    }
+
+    @Override
+    public void onInvalidations(List<Invalidation> invalidations) {
+        // Events for writes on this node are published directly, with their payload
+    }
+
+    @Override
+    public void onRemoteInvalidations(List<Invalidation> invalidations) {
+        for (Invalidation invalidation : invalidations) {
+            switch (invalidation.getKind()) {
+                case SESSIONS_STREAM -> publish(invalidation.getKey(), SESSIONS, RELOAD);
+                case NOTIFICATIONS_STREAM -> publish(invalidation.getKey(), NOTIFICATION, RELOAD);
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                if (!subscriber.signedIn(now)) {
+                    log.debug("Closing event stream for user {}: session expired or revoked", subscriber.userId);
+                    drop(subscriber);
+                    continue;
+                }
+                subscriber.offer(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        connected.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        subscriber.buffer.clear();
+    }
+
+    private void drop(Subscriber subscriber) {
+        remove(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final long sessionExpiresAt;
+        private final Integer tokenVersion;
+        private final Queue<SseEmitter.SseEventBuilder> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter, long sessionExpiresAt, Integer tokenVersion) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.sessionExpiresAt = sessionExpiresAt;
+            this.tokenVersion = tokenVersion;
+        }
+
+        private boolean signedIn(long now) {
+            return now < sessionExpiresAt && tokenVersionCache.isCurrent(userId, tokenVersion);
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                // Slow consumer: it has fallen a whole buffer behind, so cut it loose
+                dropped.increment();
+                log.debug("Dropping slow event stream for user {}", userId);
+                drop(this);
+                return;
+            }
+            published.increment();
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; release the async request rather than waiting for its timeout
+                remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.ayursutra.service;
+
+import com.ayursutra.cache.Invalidation;
+import com.ayursutra.cache.InvalidationBus;
+import com.ayursutra.dto.NotificationResponse;
+import com.ayursutra.model.Notification;
+import com.ayursutra.model.NotificationOutbox;
+import com.ayursutra.model.User;
+import com.ayursutra.notification.DeliveryException;
+import com.ayursutra.notification.NotificationChannel;
+import com.ayursutra.notification.OutgoingMessage;
+import com.ayursutra.repository.NotificationOutboxRepository;
+import com.ayursutra.repository.NotificationRepository;
+import com.ayursutra.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the notification outbox in batches: claims due events, renders them and hands them to the
+ * configured {@link NotificationChannel} on a bounded pool, then records the results in one
+ * transaction. Retryable failures are retried with exponential backoff; permanent failures and
+ * the last attempt store the notification with {@code sent = false}.
+ * <p>
+ * Claims are leases (the claimed row's next attempt is pushed out), so several application
+ * nodes can drain the same outbox and a crashed dispatcher's batch becomes due again. The lease
+ * is renewed while a batch is still being delivered, and results are only recorded for events
+ * still held under the claim, so a batch that does outlive its lease is not recorded twice.
+ * <p>
+ * An event whose template cannot be rendered is not retried: it is stored with a generic text
+ * and {@code sent = false}, so the recipient's inbox still shows that something was not sent.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+    private static final long MAX_BACKOFF_MS = 60 * 60 * 1000L;
+    private static final String UNRENDERABLE_SUBJECT = "Notification unavailable";
+    private static final String UNRENDERABLE_BODY =
+            "We could not prepare one of your notifications. Please contact your practitioner for details.";
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final NotificationTemplates templates;
+    private final NotificationChannel channel;
+    private final EventStreamHub eventStreamHub;
+    private final InvalidationBus invalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService deliveryPool;
+    private final int batchSize;
+    private final int leaseSeconds;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter failed;
+
+    public NotificationDispatcher(NotificationOutboxRepository outboxRepository,
+                                  NotificationRepository notificationRepository,
+                                  UserRepository userRepository,
+                                  NotificationTemplates templates,
+                                  NotificationChannel channel,
+                                  EventStreamHub eventStreamHub,
+                                  InvalidationBus invalidationBus,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.notifications.dispatch.threads:4}") int threads,
+                                  @Value("${app.notifications.outbox.batch-size:100}") int batchSize,
+                                  @Value("${app.notifications.outbox.lease-seconds:60}") int leaseSeconds,
+                                  @Value("${app.notifications.outbox.max-attempts:5}") int maxAttempts,
+                                  @Value("${app.notifications.outbox.retry-base-ms:2000}") long retryBaseMs) {
+        this.outboxRepository = outboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.templates = templates;
+        this.channel = channel;
+        this.eventStreamHub = eventStreamHub;
+        this.invalidationBus = invalidationBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMs = retryBaseMs;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.deliveryPool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "notification-dispatch-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.delivered = Counter.builder("notifications.dispatched").tag("outcome", "delivered").register(meterRegistry);
+        this.retried = Counter.builder("notifications.dispatched").tag("outcome", "retry").register(meterRegistry);
+        this.failed = Counter.builder("notifications.dispatched").tag("outcome", "failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.outbox.poll-interval-ms:1000}")
+    public void drain() {
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (claimed == batchSize);
+    }
+
+    private int dispatchBatch() {
+        String token = UUID.randomUUID().toString();
+        List<NotificationOutbox> events = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> due = outboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                return List.of();
+            }
+            outboxRepository.claim(due, token, now, now.plusSeconds(leaseSeconds));
+            return outboxRepository.findByClaimToken(token);
+        });
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> userIds = events.stream().map(NotificationOutbox::getUserId).collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Future<Outcome>> futures = new ArrayList<>(events.size());
+        for (NotificationOutbox event : events) {
+            futures.add(deliveryPool.submit(() -> deliver(event, users.get(event.getUserId()))));
+        }
+        List<Outcome> outcomes = new ArrayList<>(events.size());
+        Lease lease = new Lease(token);
+        for (int i = 0; i < futures.size(); i++) {
+            Outcome outcome = await(futures.get(i), events.get(i), lease);
+            if (outcome != null) {
+                outcomes.add(outcome);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> record(token, outcomes));
+        return events.size();
+    }
+
+    private Outcome deliver(NotificationOutbox event, User user) {
+        if (user == null) {
+            log.warn("Dropping notification {} for missing user {}", event.getId(), event.getUserId());
+            return new Outcome(event, null, false);
+        }
+        NotificationTemplates.Rendered rendered;
+        try {
+            rendered = templates.render(event.getType(), user.getName(), event.getPayload());
+        } catch (Exception e) {
+            log.error("Cannot render notification {} ({}); storing it as not sent", event.getId(), event.getType(), e);
+            return new Outcome(event, new NotificationTemplates.Rendered(UNRENDERABLE_SUBJECT, UNRENDERABLE_BODY),
+                    false, false, false);
+        }
+
+        try {
+            channel.deliver(new OutgoingMessage(user.getEmail(), user.getName(), rendered.getSubject(), rendered.getBody()));
+            return new Outcome(event, rendered, true, false, true);
+        } catch (DeliveryException e) {
+            log.warn("Delivery of notification {} failed (retryable={}): {}", event.getId(), e.isRetryable(), e.getMessage());
+            return new Outcome(event, rendered, false, e.isRetryable(), true);
+        } catch (RuntimeException e) {
+            log.warn("Delivery of notification {} failed", event.getId(), e);
+            return new Outcome(event, rendered, false, true, true);
+        }
+    }
+
+    private void record(String token, List<Outcome> outcomes) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> held = outboxRepository.findForUpdateByClaimToken(token).stream()
+                .map(NotificationOutbox::getId)
+                .collect(Collectors.toSet());
+        List<Notification> notifications = new ArrayList<>();
+        List<NotificationTemplates.Rendered> rendered = new ArrayList<>();
+        List<Long> finished = new ArrayList<>();
+
+        for (Outcome outcome : outcomes) {
+            NotificationOutbox event = outcome.event;
+            if (!held.contains(event.getId())) {
+                // The lease ran out and another dispatcher took the event; it records the result
+                log.warn("Lost the claim on notification {}; not recording this attempt", event.getId());
+                continue;
+            }
+            int attempts = event.getAttempts() + 1;
+            boolean retry = !outcome.delivered && outcome.retryable && attempts < maxAttempts;
+            if (retry) {
+                retried.increment();
+                outboxRepository.reschedule(event.getId(), token, attempts,
+                        now.plus(backoffMs(attempts), ChronoUnit.MILLIS));
+                continue;
+            }
+
+            finished.add(event.getId());
+            if (outcome.rendered == null) {
+                failed.increment();
+                continue;
+            }
+            (outcome.delivered ? delivered : failed).increment();
+            Notification.NotificationBuilder notification = Notification.builder()
+                    .user(userRepository.getReferenceById(event.getUserId()))
+                    .sent(outcome.delivered);
+            if (outcome.templated) {
+                notification.type(event.getType()).args(event.getPayload());
+            } else {
+                notification.subject(outcome.rendered.getSubject()).body(outcome.rendered.getBody());
+            }
+            notifications.add(notification.build());
+            rendered.add(outcome.rendered);
+        }
+
+        notifications = notificationRepository.saveAll(notifications);
+        if (!finished.isEmpty()) {
+            outboxRepository.deleteClaimed(finished, token);
+        }
+
+        // Connected inboxes get the new rows pushed instead of polling for them; inboxes connected
+        // to other nodes are told to reload
+        invalidationBus.publish(notifications.stream()
+                .map(notification -> Invalidation.of(Invalidation.Kind.NOTIFICATIONS_STREAM, notification.getUser().getId()))
+                .collect(Collectors.toSet()));
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification notification = notifications.get(i);
+            eventStreamHub.publishAfterCommit(notification.getUser().getId(), EventStreamHub.NOTIFICATION,
+                    NotificationResponse.builder()
+                            .id(notification.getId())
+                            .subject(rendered.get(i).getSubject())
+                            .body(rendered.get(i).getBody())
+                            .sent(notification.isSent())
+                            .createdAt(notification.getCreatedAt())
+                            .build());
+        }
+    }
+
+    private Outcome await(Future<Outcome> future, NotificationOutbox event, Lease lease) {
+        try {
+            while (true) {
+                try {
+                    return future.get(lease.untilRenewalNanos(), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    lease.renew();
+                }
+            }
+        } catch (ExecutionException e) {
+            log.warn("Delivery of notification {} failed", event.getId(), e.getCause());
+            return new Outcome(event, null, false);
+        } catch (InterruptedException e) {
+            // Left claimed; the event becomes due again when its lease runs out
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private long backoffMs(int attempts) {
+        return Math.min(retryBaseMs << Math.min(attempts - 1, 20), MAX_BACKOFF_MS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        deliveryPool.shutdownNow();
+    }
+
+    /**
+     * The claim on a batch being delivered. Renewed every third of the lease, so a slow batch keeps
+     * its events for as long as the dispatcher is alive.
+     */
+    private final class Lease {
+        private final String token;
+        private final long renewEveryNanos = TimeUnit.SECONDS.toNanos(leaseSeconds) / 3;
+        private long renewAt = System.nanoTime() + renewEveryNanos;
+
+        private Lease(String token) {
+            this.token = token;
+        }
+
+        long untilRenewalNanos() {
+            return Math.max(renewAt - System.nanoTime(), 0);
+        }
+
+        void renew() {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.renewLease(token, LocalDateTime.now().plusSeconds(leaseSeconds)));
+            renewAt = System.nanoTime() + renewEveryNanos;
+        }
+    }
+
+    private static final class Outcome {
+        private final NotificationOutbox event;
+        private final NotificationTemplates.Rendered rendered;
+        private final boolean delivered;
+        private final boolean retryable;
+        // False when the template failed and rendered holds the fallback text
+        private final boolean templated;
+
+        private Outcome(NotificationOutbox event, NotificationTemplates.Rendered rendered, boolean delivered) {
+            this(event, rendered, delivered, false, true);
+        }
+
+        private Outcome(NotificationOutbox event, NotificationTemplates.Rendered rendered, boolean delivered,
+                        boolean retryable, boolean templated) {
+            this.event = event;
+            this.rendered = rendered;
+            this.delivered = delivered;
+            this.retryable = retryable;
+            this.templated = templated;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.ayursutra.service;
+
+import com.ayursutra.model.enums.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notification templates, compiled once at startup into literal/slot arrays. Notifications are
+ * stored as a template type plus an argument payload and rendered from these on delivery and on
+ * read, so the boilerplate text is never persisted.
+ * <p>
+ * Placeholders: {@code {name}} is the recipient's name, {@code {0}}, {@code {1}}... are arguments,
+ * {@code {dates}} lists every argument from index 1 as "- value" lines and {@code {count}} is
+ * their number.
+ */
+@Component
+public class NotificationTemplates {
+
+    // Separates arguments in the stored payload; stripped from argument values on encode
+    private static final char ARG_SEPARATOR = '\u001F';
+
+    private final Map<NotificationType, Template> subjects = new EnumMap<>(NotificationType.class);
+    private final Map<NotificationType, Template> bodies = new EnumMap<>(NotificationType.class);
+
+    public NotificationTemplates() {
+        define(NotificationType.WELCOME,
+                "🌿 Welcome to AyurSutra!",
+                "Dear {name},\n\nWelcome to AyurSutra - Your Panchakarma Management System.\n" +
+                "Your account has been created as: {0}\n\nNamaste! 🙏\nAyurSutra Team");
+        define(NotificationType.SESSION_REMINDER,
+                "📋 Session Reminder: {0}",
+                "Dear {name},\n\nThis is a reminder for your upcoming Panchakarma session:\n" +
+                "Procedure: {0}\nScheduled: {1}\n\nPlease arrive 15 minutes early.\n\nBest regards,\nAyurSutra Team");
+        define(NotificationType.SCHEDULE_SUMMARY,
+                "📅 Your {0} Schedule ({count} sessions)",
+                "Dear {name},\n\nYour '{0}' course has been scheduled:\n{dates}\n" +
+                "Before each session, please fast for at least 4 hours, avoid strenuous activity " +
+                "the day before and keep well hydrated with warm water.\n" +
+                "Please arrive 15 minutes early.\n\nBest regards,\nAyurSutra Team");
+        define(NotificationType.PRE_PROCEDURE,
+                "🥗 Pre-Procedure Instructions: {0}",
+                "Dear {name},\n\nPreparation is key for a successful '{0}' session.\n" +
+                "1. Please fast for at least 4 hours before the procedure.\n" +
+                "2. Avoid strenuous physical activity 24 hours prior.\n" +
+                "3. Keep yourself well hydrated with warm water.\n\n" +
+                "We look forward to seeing you.\n\nBest regards,\nAyurSutra Team");
+        define(NotificationType.POST_PROCEDURE,
+                "🧘 Post-Procedure Recovery: {0}",
+                "Dear {name},\n\nYou have successfully completed your '{0}' session.\n" +
+                "Recovery Tips:\n" +
+                "- Rest for at least 2 hours in a quiet environment.\n" +
+                "- Avoid direct exposure to cold wind or sun.\n" +
+                "- Consume light, warm meals (like Khichdi) for the next 48 hours.\n\n" +
+                "Warm regards,\nAyurSutra Team");
+        define(NotificationType.FEEDBACK_REMINDER,
+                "✍️ Feedback Request: {0}",
+                "Dear {name},\n\nYour session '{0}' has been completed.\n" +
+                "Please take a moment to provide your feedback.\n\nThank you,\nAyurSutra Team");
+
+        for (NotificationType type : NotificationType.values()) {
+            if (!bodies.containsKey(type)) {
+                throw new IllegalStateException("No notification template for " + type);
+            }
+        }
+    }
+
+    public Rendered render(NotificationType type, String recipientName, String payload) {
+        String[] args = decodeArgs(payload);
+        return new Rendered(subjects.get(type).render(recipientName, args), bodies.get(type).render(recipientName, args));
+    }
+
+    public static String encodeArgs(List<String> args) {
+        StringBuilder payload = new StringBuilder();
+        for (int i = 0; i < args.size(); i++) {
+            if (i > 0) {
+                payload.append(ARG_SEPARATOR);
+            }
+            payload.append(args.get(i).replace(ARG_SEPARATOR, ' '));
+        }
+        return payload.toString();
+    }
+
+    static String[] decodeArgs(String payload) {
+        if (payload == null || payload.isEmpty()) {
+            return new String[0];
+        }
+        int count = 1;
+        for (int i = 0; i < payload.length(); i++) {
+            if (payload.charAt(i) == ARG_SEPARATOR) {
+                count++;
+            }
+        }
+        String[] args = new String[count];
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = payload.indexOf(ARG_SEPARATOR, start);
+            args[i] = payload.substring(start, end < 0 ? payload.length() : end);
+            start = end + 1;
+        }
+        return args;
+    }
+
+    private void define(NotificationType type, String subject, String body) {
+        subjects.put(type, Template.compile(subject));
+        bodies.put(type, Template.compile(body));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Rendered {
+        private final String subject;
+        private final String body;
+    }
+
+    // Literal text interleaved with slots: literals[0] slot[0] literals[1] ... slot[n-1] literals[n]
+    private static final class Template {
+        private static final int NAME = -1;
+        private static final int DATES = -2;
+        private static final int COUNT = -3;
+
+        private final String[] literals;
+        private final int[] slots;
+        private final int literalLength;
+
+        private Template(String[] literals, int[] slots) {
+            this.literals = literals;
+            this.slots = slots;
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        static Template compile(String source) {
+            List<String> literals = new ArrayList<>();
+            List<Integer> slots = new ArrayList<>();
+            int start = 0;
+            int open;
+            while ((open = source.indexOf('{', start)) >= 0) {
+                int close = source.indexOf('}', open);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed placeholder in template: " + source);
+                }
+                literals.add(source.substring(start, open));
+                slots.add(slotOf(source.substring(open + 1, close)));
+                start = close + 1;
+            }
+            literals.add(source.substring(start));
+            return new Template(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        private static int slotOf(String placeholder) {
+            return switch (placeholder) {
+                case "name" -> NAME;
+                case "dates" -> DATES;
+                case "count" -> COUNT;
+                default -> Integer.parseInt(placeholder);
+            };
+        }
+
+        String render(String name, String[] args) {
+            int capacity = literalLength + name.length();
+            for (String arg : args) {
+                capacity += arg.length() + 3;
+            }
+            StringBuilder out = new StringBuilder(capacity);
+            out.append(literals[0]);
+            for (int i = 0; i < slots.length; i++) {
+                int slot = slots[i];
+                if (slot == NAME) {
+                    out.append(name);
+                } else if (slot == DATES) {
+                    for (int a = 1; a < args.length; a++) {
+                        out.append("- ").append(args[a]).append('\n');
+                    }
+                } else if (slot == COUNT) {
+                    out.append(Math.max(args.length - 1, 0));
+                } else {
+                    out.append(slot < args.length ? args[slot] : "");
+                }
+                out.append(literals[i + 1]);
+            }
+            return out.toString();
+        }
+    }
+}
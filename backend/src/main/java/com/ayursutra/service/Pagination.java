@@ -0,0 +1,31 @@
+package com.ayursutra.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Page-size limits shared by the keyset-paginated list endpoints.
+ */
+@Component
+public class Pagination {
+
+    @Value("${app.pagination.default-size:100}")
+    private int defaultSize;
+
+    @Value("${app.pagination.max-size:500}")
+    private int maxSize;
+
+    public int limit(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultSize;
+        }
+        return Math.min(requested, maxSize);
+    }
+
+    // One extra row tells CursorPage whether another page follows
+    public Pageable rows(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+}
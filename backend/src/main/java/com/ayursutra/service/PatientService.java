@@ -1,18 +1,22 @@
 package com.ayursutra.service;
 
 import com.ayursutra.dto.*;
+import com.ayursutra.event.*;
 import com.ayursutra.exception.BadRequestException;
 import com.ayursutra.exception.ResourceNotFoundException;
 import com.ayursutra.model.*;
 import com.ayursutra.model.enums.Phase;
 import com.ayursutra.model.enums.SessionStatus;
 import com.ayursutra.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional
 public class PatientService {
 
     private final UserRepository userRepository;
@@ -22,6 +26,14 @@ public class PatientService {
     private final FeedbackRepository feedbackRepository;
     private final NotificationRepository notificationRepository;
     private final NotificationService notificationService;
+    private final NotificationTemplates notificationTemplates;
+    private final SessionMapper sessionMapper;
+    private final SessionCounterService sessionCounterService;
+    private final PractitionerCalendar practitionerCalendar;
+    private final SessionReminderScheduler sessionReminderScheduler;
+    private final EventStreamHub eventStreamHub;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Pagination pagination;
 
     public PatientService(UserRepository userRepository,
                           PatientProfileRepository patientProfileRepository,
@@ -29,7 +41,15 @@ public class PatientService {
                           TherapySessionRepository therapySessionRepository,
                           FeedbackRepository feedbackRepository,
                           NotificationRepository notificationRepository,
-                          NotificationService notificationService) {
+                          NotificationService notificationService,
+                          NotificationTemplates notificationTemplates,
+                          SessionMapper sessionMapper,
+                          SessionCounterService sessionCounterService,
+                          PractitionerCalendar practitionerCalendar,
+                          SessionReminderScheduler sessionReminderScheduler,
+                          EventStreamHub eventStreamHub,
+                          ApplicationEventPublisher eventPublisher,
+                          Pagination pagination) {
         this.userRepository = userRepository;
         this.patientProfileRepository = patientProfileRepository;
         this.therapyPlanRepository = therapyPlanRepository;
@@ -37,23 +57,40 @@ public class PatientService {
         this.feedbackRepository = feedbackRepository;
         this.notificationRepository = notificationRepository;
         this.notificationService = notificationService;
+        this.notificationTemplates = notificationTemplates;
+        this.sessionMapper = sessionMapper;
+        this.sessionCounterService = sessionCounterService;
+        this.practitionerCalendar = practitionerCalendar;
+        this.sessionReminderScheduler = sessionReminderScheduler;
+        this.eventStreamHub = eventStreamHub;
+        this.eventPublisher = eventPublisher;
+        this.pagination = pagination;
     }
 
-    public List<TherapySessionResponse> getMySessions(Long patientId) {
-        return therapySessionRepository.findByPatientId(patientId).stream()
-                .map(this::toSessionResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<TherapySessionResponse> getMySessions(Long patientId, String cursor, Integer limit) {
+        int size = pagination.limit(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        List<TherapySessionResponse> rows = after == null
+                ? therapySessionRepository.findResponsesByPatientId(patientId, pagination.rows(size))
+                : therapySessionRepository.findResponsesByPatientIdAfter(patientId,
+                        after.requireTimestamp().getTimestamp(), after.getId(), pagination.rows(size));
+
+        CursorPage<TherapySessionResponse> page =
+                CursorPage.of(rows, size, s -> PageCursor.of(s.getScheduledDate(), s.getId()));
+        sessionMapper.attachFeedback(page.getItems());
+        return page;
     }
 
     public FeedbackResponse submitFeedback(FeedbackRequest request, Long patientId) {
-        TherapySession session = therapySessionRepository.findById(request.getSessionId())
+        TherapySession session = therapySessionRepository.findWithPlanById(request.getSessionId())
                 .orElseThrow(() -> new ResourceNotFoundException("Session not found"));
 
         if (!session.getTherapyPlan().getPatient().getId().equals(patientId)) {
             throw new BadRequestException("You can only submit feedback for your own sessions");
         }
 
-        if (feedbackRepository.findBySessionId(session.getId()).isPresent()) {
+        if (feedbackRepository.existsBySessionId(session.getId())) {
             throw new BadRequestException("Feedback already submitted for this session");
         }
 
@@ -61,6 +98,7 @@ public class PatientService {
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found"));
 
         // Mark session as completed
+        SessionStatus previousStatus = session.getStatus();
         session.setStatus(SessionStatus.COMPLETED);
         therapySessionRepository.save(session);
 
@@ -76,39 +114,56 @@ public class PatientService {
 
         feedback = feedbackRepository.save(feedback);
 
-        return toFeedbackResponse(feedback);
+        TherapyPlan plan = session.getTherapyPlan();
+        practitionerCalendar.statusChanged(plan.getPractitioner().getId(), session.getId(), session.getScheduledDate(),
+                session.getProcedureName(), previousStatus, SessionStatus.COMPLETED);
+        sessionReminderScheduler.statusChanged(session, previousStatus, SessionStatus.COMPLETED);
+        sessionCounterService.feedbackSubmitted(plan.getPractitioner().getId(), patientId, plan.getPhase(), previousStatus);
+
+        FeedbackResponse response = sessionMapper.toFeedbackResponse(feedback);
+        eventPublisher.publishEvent(new FeedbackSubmittedEvent(plan.getPractitioner().getId(), patientId, session.getId()));
+        eventStreamHub.sessionsChangedAfterCommit(plan.getPractitioner().getId(), patientId,
+                List.of(sessionMapper.toSessionResponse(session, response)));
+        return response;
     }
 
     public TherapyProgressResponse getTherapyProgress(Long patientId) {
-        List<TherapySession> allSessions = therapySessionRepository.findByPatientId(patientId);
-        long completed = allSessions.stream().filter(s -> s.getStatus() == SessionStatus.COMPLETED).count();
+        List<TherapySessionResponse> allSessions =
+                sessionMapper.attachFeedback(therapySessionRepository.findResponsesByPatientId(patientId));
+        Map<Phase, PatientPhaseStats> counters = sessionCounterService.getPatientPhaseCounts(patientId);
 
         // Group sessions by phase
-        Map<Phase, List<TherapySession>> byPhase = allSessions.stream()
-                .collect(Collectors.groupingBy(s -> s.getTherapyPlan().getPhase()));
+        Map<Phase, List<TherapySessionResponse>> byPhase = allSessions.stream()
+                .collect(Collectors.groupingBy(TherapySessionResponse::getPhase));
 
+        long total = 0;
+        long completed = 0;
         List<TherapyProgressResponse.PhaseProgress> phases = new ArrayList<>();
         for (Phase phase : Phase.values()) {
-            List<TherapySession> phaseSessions = byPhase.getOrDefault(phase, Collections.emptyList());
-            long phaseCompleted = phaseSessions.stream().filter(s -> s.getStatus() == SessionStatus.COMPLETED).count();
+            PatientPhaseStats stats = counters.get(phase);
+            long phaseTotal = stats != null ? stats.getTotalSessions() : 0;
+            long phaseCompleted = stats != null ? stats.getCompletedSessions() : 0;
+            total += phaseTotal;
+            completed += phaseCompleted;
 
             phases.add(TherapyProgressResponse.PhaseProgress.builder()
                     .phase(phase.name())
-                    .total(phaseSessions.size())
+                    .total(phaseTotal)
                     .completed(phaseCompleted)
-                    .percentage(phaseSessions.isEmpty() ? 0 : (double) phaseCompleted / phaseSessions.size() * 100)
-                    .sessions(phaseSessions.stream().map(this::toSessionResponse).collect(Collectors.toList()))
+                    .percentage(phaseTotal == 0 ? 0 : (double) phaseCompleted / phaseTotal * 100)
+                    .sessions(byPhase.getOrDefault(phase, Collections.emptyList()))
                     .build());
         }
 
         return TherapyProgressResponse.builder()
-                .totalSessions(allSessions.size())
+                .totalSessions(total)
                 .completedSessions(completed)
-                .completionPercentage(allSessions.isEmpty() ? 0 : (double) completed / allSessions.size() * 100)
+                .completionPercentage(total == 0 ? 0 : (double) completed / total * 100)
                 .phases(phases)
                 .build();
     }
 
+    @Transactional(readOnly = true)
     public PatientProfileResponse getMyProfile(Long patientId) {
         PatientProfile profile = patientProfileRepository.findByUserId(patientId)
                 .orElse(null);
@@ -126,51 +181,37 @@ public class PatientService {
                 .build();
     }
 
-    public List<NotificationResponse> getMyNotifications(Long userId) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
-                .map(n -> NotificationResponse.builder()
-                        .id(n.getId())
-                        .subject(n.getSubject())
-                        .body(n.getBody())
-                        .sent(n.isSent())
-                        .createdAt(n.getCreatedAt())
-                        .build())
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationResponse> getMyNotifications(Long userId, String cursor, Integer limit) {
+        int size = pagination.limit(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        List<NotificationRow> rows = after == null
+                ? notificationRepository.findRowsByUserId(userId, pagination.rows(size))
+                : notificationRepository.findRowsByUserIdAfter(userId,
+                        after.requireTimestamp().getTimestamp(), after.getId(), pagination.rows(size));
+        CursorPage<NotificationRow> page = CursorPage.of(rows, size, n -> PageCursor.of(n.getCreatedAt(), n.getId()));
+
+        // Templated rows are rendered here; only they need the recipient's name
+        String recipientName = page.getItems().stream().anyMatch(n -> n.getType() != null)
+                ? userRepository.findNameById(userId).orElse("")
+                : "";
+        return page.map(n -> toNotificationResponse(n, recipientName));
     }
 
-    // =========== Mappers ===========
-
-    private TherapySessionResponse toSessionResponse(TherapySession session) {
-        FeedbackResponse fb = feedbackRepository.findBySessionId(session.getId())
-                .map(this::toFeedbackResponse)
-                .orElse(null);
-
-        return TherapySessionResponse.builder()
-                .id(session.getId())
-                .therapyPlanId(session.getTherapyPlan().getId())
-                .phase(session.getTherapyPlan().getPhase())
-                .procedureName(session.getProcedureName())
-                .scheduledDate(session.getScheduledDate())
-                .notes(session.getNotes())
-                .status(session.getStatus())
-                .practitionerName(session.getTherapyPlan().getPractitioner().getName())
-                .patientName(session.getTherapyPlan().getPatient().getName())
-                .feedback(fb)
-                .build();
-    }
-
-    private FeedbackResponse toFeedbackResponse(Feedback feedback) {
-        return FeedbackResponse.builder()
-                .id(feedback.getId())
-                .sessionId(feedback.getSession().getId())
-                .procedureName(feedback.getSession().getProcedureName())
-                .patientName(feedback.getPatient().getName())
-                .message(feedback.getMessage())
-                .rating(feedback.getRating())
-                .symptoms(feedback.getSymptoms())
-                .sideEffects(feedback.getSideEffects())
-                .improvementLevel(feedback.getImprovementLevel())
-                .createdAt(feedback.getCreatedAt())
+    private NotificationResponse toNotificationResponse(NotificationRow row, String recipientName) {
+        String subject = row.getSubject();
+        String body = row.getBody();
+        if (row.getType() != null) {
+            NotificationTemplates.Rendered rendered = notificationTemplates.render(row.getType(), recipientName, row.getArgs());
+            subject = rendered.getSubject();
+            body = rendered.getBody();
+        }
+        return NotificationResponse.builder()
+                .id(row.getId())
+                .subject(subject)
+                .body(body)
+                .sent(row.getSent())
+                .createdAt(row.getCreatedAt())
                 .build();
     }
 }
@@ -0,0 +1,474 @@
+package com.ayursutra.service;
+
+import com.ayursutra.cache.Invalidation;
+import com.ayursutra.cache.InvalidationListener;
+import com.ayursutra.dto.AvailableSlot;
+import com.ayursutra.dto.SessionSlot;
+import com.ayursutra.exception.BadRequestException;
+import com.ayursutra.model.enums.SessionStatus;
+import com.ayursutra.repository.TherapySessionRepository;
+import com.ayursutra.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of each practitioner's scheduled sessions, used for conflict detection.
+ * <p>
+ * A practitioner's schedule is loaded from the database on first use, from the start of the
+ * current day onwards, and then kept current by {@link #reserve}, {@link #confirm} and
+ * {@link #statusChanged}. Schedules are held for at most {@code app.calendar.max-practitioners}
+ * practitioners and dropped after {@code app.calendar.idle-minutes} without use. Check-and-reserve
+ * runs under a striped per-practitioner lock, so two concurrent bookings for the same window
+ * cannot both pass. The lock is never held across a database call: a schedule is loaded outside
+ * it and installed only if nothing changed the practitioner's stripe meanwhile. A reservation made
+ * inside a transaction is released again if that transaction rolls back.
+ * <p>
+ * Alongside the ordered set, each schedule keeps one minute-granularity occupancy bitset per day,
+ * which {@link #findFreeSlots} scans word-at-a-time instead of probing candidate slots one by one.
+ * <p>
+ * The index lives in this JVM. With several nodes, a practitioner's schedule is dropped when
+ * another node reports a change to it ({@code PRACTITIONER_CALENDAR} on the
+ * {@link com.ayursutra.cache.InvalidationBus}) and reloaded on next use. Until that arrives the
+ * index can miss the other node's bookings, so each reservation also takes the practitioner's row
+ * lock and re-checks the committed sessions in the database; an index found stale there is
+ * dropped as well. The same check covers a schedule evicted and reloaded while one of its
+ * bookings was still uncommitted, and bookings before the loaded range.
+ */
+@Component
+public class PractitionerCalendar implements InvalidationListener {
+
+    // Sessions are booked as one-hour blocks; a session conflicts with any scheduled
+    // session starting within 59 minutes of it
+    static final int SESSION_MINUTES = 60;
+    static final Duration CONFLICT_WINDOW = Duration.ofMinutes(SESSION_MINUTES - 1);
+
+    // Free slots are offered on quarter-hour boundaries
+    private static final int SLOT_STEP_MINUTES = 15;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final TherapySessionRepository therapySessionRepository;
+    private final UserRepository userRepository;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    // Bumped under the stripe's lock whenever a change could not be applied to a loaded
+    // schedule, so a load that started before it is not installed
+    private final long[] generations = new long[LOCK_STRIPES];
+    private final Cache<Long, Schedule> schedules;
+    private final AtomicLong bookingSequence = new AtomicLong();
+
+    public PractitionerCalendar(TherapySessionRepository therapySessionRepository,
+                                UserRepository userRepository,
+                                @Value("${app.calendar.max-practitioners:10000}") long maxPractitioners,
+                                @Value("${app.calendar.idle-minutes:60}") long idleMinutes) {
+        this.therapySessionRepository = therapySessionRepository;
+        this.userRepository = userRepository;
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maxPractitioners)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Books {@code start} for the practitioner, or throws if another scheduled session is within
+     * {@link #CONFLICT_WINDOW}. Call {@link #confirm} once the session row has an id.
+     */
+    public Booking reserve(Long practitionerId, LocalDateTime start, String procedureName) {
+        return reserveAll(practitionerId, List.of(start), procedureName).get(0);
+    }
+
+    @Override
+    public void onInvalidations(List<Invalidation> invalidations) {
+        // Writes on this node already updated the index
+    }
+
+    @Override
+    public void onRemoteInvalidations(List<Invalidation> invalidations) {
+        for (Invalidation invalidation : invalidations) {
+            if (invalidation.getKind() == Invalidation.Kind.PRACTITIONER_CALENDAR) {
+                Long practitionerId = invalidation.getKey();
+                drop(practitionerId);
+            }
+        }
+    }
+
+    /**
+     * Books every start time or none of them: each must clear the existing schedule and the
+     * other requested starts by the conflict window. Bookings are returned in request order.
+     * <p>
+     * Must run inside the transaction that inserts the sessions: the practitioner's row stays
+     * locked until it ends, so the database check cannot pass for two overlapping bookings.
+     */
+    public List<Booking> reserveAll(Long practitionerId, List<LocalDateTime> starts, String procedureName) {
+        List<LocalDateTime> sorted = starts.stream().sorted().toList();
+        for (int i = 1; i < sorted.size(); i++) {
+            if (!sorted.get(i).isAfter(sorted.get(i - 1).plus(CONFLICT_WINDOW))) {
+                throw new BadRequestException("Schedule Conflict: requested sessions at " +
+                        sorted.get(i - 1).toString().replace("T", " ") + " and " +
+                        sorted.get(i).toString().replace("T", " ") + " are less than an hour apart");
+            }
+        }
+
+        // Row lock first; the in-memory lock is only ever taken after it
+        userRepository.findForUpdate(practitionerId);
+
+        List<Booking> bookings = withSchedule(practitionerId, schedule -> {
+            for (LocalDateTime start : starts) {
+                Booking conflict = schedule.firstWithin(start.minus(CONFLICT_WINDOW), start.plus(CONFLICT_WINDOW));
+                if (conflict != null) {
+                    throw new BadRequestException("Schedule Conflict: You already have a '" +
+                            conflict.procedureName + "' session scheduled at " +
+                            conflict.start.toString().replace("T", " "));
+                }
+            }
+            List<Booking> reserved = new ArrayList<>(starts.size());
+            for (LocalDateTime start : starts) {
+                Booking booking = new Booking(start, procedureName, bookingSequence.incrementAndGet());
+                schedule.add(booking);
+                reserved.add(booking);
+            }
+            return reserved;
+        });
+        afterRollback(() -> withLock(practitionerId, () -> {
+            Schedule schedule = schedules.getIfPresent(practitionerId);
+            if (schedule != null) {
+                bookings.forEach(schedule::remove);
+            }
+            return null;
+        }));
+        checkCommitted(practitionerId, sorted);
+        return bookings;
+    }
+
+    // Another node may have booked sessions this index has not seen
+    private void checkCommitted(Long practitionerId, List<LocalDateTime> sorted) {
+        List<SessionSlot> nearby = therapySessionRepository.findSlotsByPractitionerIdAndStatusBetween(
+                practitionerId, SessionStatus.SCHEDULED,
+                sorted.get(0).minus(CONFLICT_WINDOW), sorted.get(sorted.size() - 1).plus(CONFLICT_WINDOW));
+        int i = 0;
+        for (SessionSlot slot : nearby) {
+            while (i < sorted.size() && sorted.get(i).plus(CONFLICT_WINDOW).isBefore(slot.getScheduledDate())) {
+                i++;
+            }
+            if (i < sorted.size() && !sorted.get(i).minus(CONFLICT_WINDOW).isAfter(slot.getScheduledDate())) {
+                drop(practitionerId);
+                throw new BadRequestException("Schedule Conflict: You already have a '" +
+                        slot.getProcedureName() + "' session scheduled at " +
+                        slot.getScheduledDate().toString().replace("T", " "));
+            }
+        }
+    }
+
+    public void confirm(Long practitionerId, Booking booking, Long sessionId) {
+        withLock(practitionerId, () -> {
+            Schedule schedule = schedules.getIfPresent(practitionerId);
+            if (schedule != null) {
+                schedule.assignSession(booking, sessionId);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Returns up to {@code limit} free slots of {@code durationMinutes} between {@code from} and
+     * {@code to}, earliest first. Each slot is also at least one session apart from the others,
+     * so any of them can be booked without conflicting with an existing or another offered slot.
+     */
+    public List<AvailableSlot> findFreeSlots(Long practitionerId, LocalDateTime from, LocalDateTime to,
+                                             int durationMinutes, int limit) {
+        return withSchedule(practitionerId, schedule ->
+                schedule.freeSlots(minuteCeil(from), minuteOf(to), durationMinutes, limit));
+    }
+
+    /**
+     * Records a status change once the surrounding transaction commits: sessions leaving
+     * SCHEDULED free their slot, sessions returning to it occupy it again.
+     */
+    public void statusChanged(Long practitionerId, Long sessionId, LocalDateTime start, String procedureName,
+                              SessionStatus from, SessionStatus to) {
+        if (from == to) {
+            return;
+        }
+        afterCommit(() -> withLock(practitionerId, () -> {
+            Schedule schedule = schedules.getIfPresent(practitionerId);
+            if (schedule == null) {
+                // Not loaded; a load already under way may have read the state before this commit
+                generations[stripe(practitionerId)]++;
+                return null;
+            }
+            if (from == SessionStatus.SCHEDULED) {
+                schedule.removeSession(sessionId);
+            }
+            if (to == SessionStatus.SCHEDULED) {
+                Booking booking = new Booking(start, procedureName, bookingSequence.incrementAndGet());
+                schedule.add(booking);
+                schedule.assignSession(booking, sessionId);
+            }
+            return null;
+        }));
+    }
+
+    // Runs the action under the practitioner's lock with their schedule, loading it first if needed
+    private <T> T withSchedule(Long practitionerId, Function<Schedule, T> action) {
+        while (true) {
+            long generation = withLock(practitionerId, () -> {
+                Schedule schedule = schedules.getIfPresent(practitionerId);
+                return schedule != null ? -1L : generations[stripe(practitionerId)];
+            });
+            Schedule loaded = generation < 0 ? null : load(practitionerId);
+            Optional<T> result = withLock(practitionerId, () -> {
+                Schedule schedule = schedules.getIfPresent(practitionerId);
+                if (schedule == null && loaded != null && generations[stripe(practitionerId)] == generation) {
+                    schedule = schedules.asMap().putIfAbsent(practitionerId, loaded);
+                    if (schedule == null) {
+                        schedule = loaded;
+                    }
+                }
+                return schedule == null ? null : Optional.ofNullable(action.apply(schedule));
+            });
+            if (result != null) {
+                return result.orElse(null);
+            }
+        }
+    }
+
+    private Schedule load(Long practitionerId) {
+        Schedule schedule = new Schedule();
+        for (SessionSlot slot : therapySessionRepository.findSlotsByPractitionerIdAndStatusFrom(
+                practitionerId, SessionStatus.SCHEDULED, LocalDate.now().atStartOfDay())) {
+            Booking booking = new Booking(slot.getScheduledDate(), slot.getProcedureName(),
+                    bookingSequence.incrementAndGet());
+            schedule.add(booking);
+            schedule.assignSession(booking, slot.getId());
+        }
+        return schedule;
+    }
+
+    private void drop(Long practitionerId) {
+        withLock(practitionerId, () -> {
+            schedules.invalidate(practitionerId);
+            generations[stripe(practitionerId)]++;
+            return null;
+        });
+    }
+
+    private <T> T withLock(Long practitionerId, Supplier<T> action) {
+        ReentrantLock lock = locks[stripe(practitionerId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int stripe(Long practitionerId) {
+        return Math.floorMod(practitionerId.hashCode(), LOCK_STRIPES);
+    }
+
+    // Minutes since the epoch, in local time
+    private static long minuteOf(LocalDateTime time) {
+        return time.toLocalDate().toEpochDay() * MINUTES_PER_DAY + time.getHour() * 60L + time.getMinute();
+    }
+
+    private static long minuteCeil(LocalDateTime time) {
+        long minute = minuteOf(time);
+        return time.getSecond() > 0 || time.getNano() > 0 ? minute + 1 : minute;
+    }
+
+    private static LocalDateTime timeOf(long minute) {
+        return LocalDate.ofEpochDay(Math.floorDiv(minute, MINUTES_PER_DAY)).atStartOfDay()
+                .plusMinutes(Math.floorMod(minute, MINUTES_PER_DAY));
+    }
+
+    private static long alignUp(long minute) {
+        return Math.floorDiv(minute + SLOT_STEP_MINUTES - 1, SLOT_STEP_MINUTES) * SLOT_STEP_MINUTES;
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * A booked slot. The sequence number orders bookings that share a start time.
+     */
+    public static final class Booking {
+        private final LocalDateTime start;
+        private final String procedureName;
+        private final long sequence;
+        private Long sessionId;
+
+        private Booking(LocalDateTime start, String procedureName, long sequence) {
+            this.start = start;
+            this.procedureName = procedureName;
+            this.sequence = sequence;
+        }
+    }
+
+    // One practitioner's scheduled sessions ordered by start time, plus per-day occupancy bitsets
+    // (bit i of a day = minute i is inside some session); guarded by the practitioner's lock
+    private static final class Schedule {
+        private static final Comparator<Booking> ORDER =
+                Comparator.comparing((Booking b) -> b.start).thenComparingLong(b -> b.sequence);
+
+        private final TreeSet<Booking> byStart = new TreeSet<>(ORDER);
+        private final Map<Long, Booking> bySession = new HashMap<>();
+        private final Map<Long, BitSet> busyDays = new HashMap<>();
+
+        Booking firstWithin(LocalDateTime from, LocalDateTime to) {
+            Booking first = byStart.ceiling(new Booking(from, null, Long.MIN_VALUE));
+            return first != null && !first.start.isAfter(to) ? first : null;
+        }
+
+        void add(Booking booking) {
+            byStart.add(booking);
+            mark(booking, true);
+        }
+
+        void assignSession(Booking booking, Long sessionId) {
+            booking.sessionId = sessionId;
+            bySession.put(sessionId, booking);
+        }
+
+        void remove(Booking booking) {
+            if (booking.sessionId != null) {
+                bySession.remove(booking.sessionId);
+            }
+            if (byStart.remove(booking)) {
+                unmark(booking);
+            }
+        }
+
+        void removeSession(Long sessionId) {
+            Booking booking = bySession.remove(sessionId);
+            if (booking != null && byStart.remove(booking)) {
+                unmark(booking);
+            }
+        }
+
+        List<AvailableSlot> freeSlots(long from, long to, int durationMinutes, int limit) {
+            long span = Math.max(durationMinutes, SESSION_MINUTES);
+            List<AvailableSlot> slots = new ArrayList<>();
+            long start = alignUp(from);
+            while (slots.size() < limit && start + durationMinutes <= to) {
+                long busy = nextBusy(start, start + span);
+                if (busy < 0) {
+                    slots.add(new AvailableSlot(timeOf(start), timeOf(start + durationMinutes)));
+                    start = alignUp(start + span);
+                } else {
+                    start = alignUp(nextFree(busy));
+                }
+            }
+            return slots;
+        }
+
+        // Clearing a session's minutes may clear minutes an overlapping session still covers,
+        // so the neighbours that can overlap it are marked again
+        private void unmark(Booking booking) {
+            mark(booking, false);
+            Duration reach = Duration.ofMinutes(SESSION_MINUTES);
+            for (Booking neighbour : byStart.subSet(
+                    new Booking(booking.start.minus(reach), null, Long.MIN_VALUE), true,
+                    new Booking(booking.start.plus(reach), null, Long.MAX_VALUE), true)) {
+                mark(neighbour, true);
+            }
+        }
+
+        private void mark(Booking booking, boolean busy) {
+            long from = minuteOf(booking.start);
+            long to = minuteCeil(booking.start.plusMinutes(SESSION_MINUTES));
+            while (from < to) {
+                long day = Math.floorDiv(from, MINUTES_PER_DAY);
+                long dayStart = day * MINUTES_PER_DAY;
+                long segmentEnd = Math.min(to, dayStart + MINUTES_PER_DAY);
+                BitSet bits = busy ? busyDays.computeIfAbsent(day, d -> new BitSet(MINUTES_PER_DAY)) : busyDays.get(day);
+                if (bits != null) {
+                    bits.set((int) (from - dayStart), (int) (segmentEnd - dayStart), busy);
+                    if (!busy && bits.isEmpty()) {
+                        busyDays.remove(day);
+                    }
+                }
+                from = segmentEnd;
+            }
+        }
+
+        // First busy minute in [from, to), or -1
+        private long nextBusy(long from, long to) {
+            while (from < to) {
+                long day = Math.floorDiv(from, MINUTES_PER_DAY);
+                long dayStart = day * MINUTES_PER_DAY;
+                BitSet bits = busyDays.get(day);
+                if (bits != null) {
+                    int minute = bits.nextSetBit((int) (from - dayStart));
+                    if (minute >= 0) {
+                        return dayStart + minute < to ? dayStart + minute : -1;
+                    }
+                }
+                from = dayStart + MINUTES_PER_DAY;
+            }
+            return -1;
+        }
+
+        // First free minute at or after from
+        private long nextFree(long from) {
+            while (true) {
+                long day = Math.floorDiv(from, MINUTES_PER_DAY);
+                long dayStart = day * MINUTES_PER_DAY;
+                BitSet bits = busyDays.get(day);
+                if (bits == null) {
+                    return from;
+                }
+                int minute = bits.nextClearBit((int) (from - dayStart));
+                if (minute < MINUTES_PER_DAY) {
+                    return dayStart + minute;
+                }
+                from = dayStart + MINUTES_PER_DAY;
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ayursutra.service;
+
+import com.ayursutra.cache.Invalidation;
+import com.ayursutra.cache.InvalidationListener;
+import com.ayursutra.dto.CursorPage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Caches the practitioner's patient, plan and feedback pages between writes. Bounded by total
+ * row count (Caffeine's W-TinyLFU weighs each page by its size), with metrics under
+ * {@code practitioner.read-models}.
+ * <p>
+ * Each view of each practitioner has a generation that is part of the cache key. View
+ * invalidations from the {@link com.ayursutra.cache.InvalidationBus} (raised from domain events,
+ * on this node or another) bump the generation of exactly the views a write changed once it
+ * commits; a reader takes the generation before it queries, so a page loaded concurrently with a
+ * write is stored under the old generation and never served after the write. Pages of older
+ * generations are never read again and age out through the size bound and TTL, so an
+ * invalidation is a single counter bump. Session scheduling and status changes do not show up in
+ * these views and leave them cached.
+ */
+@Component
+public class PractitionerReadCache implements InvalidationListener {
+
+    public enum View { PATIENTS, PLANS, FEEDBACK }
+
+    private final Cache<Key, CursorPage<?>> pages;
+    private final Map<Long, AtomicLongArray> generations = new ConcurrentHashMap<>();
+
+    public PractitionerReadCache(MeterRegistry meterRegistry,
+                                 @Value("${app.read-cache.max-rows:100000}") long maxRows,
+                                 @Value("${app.read-cache.ttl-minutes:10}") long ttlMinutes) {
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((Key key, CursorPage<?> page) -> page.getItems().size() + 1)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "practitioner.read-models");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CursorPage<T> get(View view, Long practitionerId, String cursor, Integer limit,
+                                 Supplier<CursorPage<T>> loader) {
+        Key key = new Key(view, practitionerId, generation(practitionerId, view), cursor, limit);
+        return (CursorPage<T>) pages.get(key, k -> loader.get());
+    }
+
+    @Override
+    public void onInvalidations(List<Invalidation> invalidations) {
+        for (Invalidation invalidation : invalidations) {
+            switch (invalidation.getKind()) {
+                case PATIENTS_VIEW -> invalidate(invalidation.getKey(), View.PATIENTS);
+                case PLANS_VIEW -> invalidate(invalidation.getKey(), View.PLANS);
+                case FEEDBACK_VIEW -> invalidate(invalidation.getKey(), View.FEEDBACK);
+                default -> {
+                }
+            }
+        }
+    }
+
+    public void invalidate(long practitionerId, View view) {
+        generations.computeIfAbsent(practitionerId, id -> new AtomicLongArray(View.values().length))
+                .incrementAndGet(view.ordinal());
+    }
+
+    private long generation(Long practitionerId, View view) {
+        AtomicLongArray counters = generations.get(practitionerId);
+        return counters != null ? counters.get(view.ordinal()) : 0;
+    }
+
+    private static final class Key {
+        private final View view;
+        private final Long practitionerId;
+        private final long generation;
+        private final String cursor;
+        private final Integer limit;
+
+        private Key(View view, Long practitionerId, long generation, String cursor, Integer limit) {
+            this.view = view;
+            this.practitionerId = practitionerId;
+            this.generation = generation;
+            this.cursor = cursor;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return view == other.view
+                    && generation == other.generation
+                    && practitionerId.equals(other.practitionerId)
+                    && Objects.equals(cursor, other.cursor)
+                    && Objects.equals(limit, other.limit);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(view, practitionerId, generation, cursor, limit);
+        }
+    }
+}
@@ -1,43 +1,87 @@
 package com.ayursutra.service;
 
 import com.ayursutra.dto.*;
+import com.ayursutra.event.*;
 import com.ayursutra.exception.BadRequestException;
 import com.ayursutra.exception.ResourceNotFoundException;
 import com.ayursutra.model.*;
 import com.ayursutra.model.enums.Role;
 import com.ayursutra.model.enums.SessionStatus;
 import com.ayursutra.repository.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional
 public class PractitionerService {
 
+    static final int MAX_COURSE_SESSIONS = 60;
+    private static final int DASHBOARD_RECENT_PATIENTS = 5;
+    private static final int AVAILABILITY_DEFAULT_DAYS = 28;
+    private static final int AVAILABILITY_MAX_DAYS = 92;
+
     private final UserRepository userRepository;
     private final PatientProfileRepository patientProfileRepository;
     private final TherapyPlanRepository therapyPlanRepository;
     private final TherapySessionRepository therapySessionRepository;
     private final FeedbackRepository feedbackRepository;
     private final NotificationService notificationService;
+    private final SessionMapper sessionMapper;
+    private final SessionCounterService sessionCounterService;
+    private final PractitionerCalendar practitionerCalendar;
+    private final SessionReminderScheduler sessionReminderScheduler;
+    private final EventStreamHub eventStreamHub;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PractitionerReadCache readCache;
+    private final Pagination pagination;
+
+    @Value("${app.dashboard.upcoming-limit:50}")
+    private int dashboardUpcomingLimit;
 
     public PractitionerService(UserRepository userRepository,
                                PatientProfileRepository patientProfileRepository,
                                TherapyPlanRepository therapyPlanRepository,
                                TherapySessionRepository therapySessionRepository,
                                FeedbackRepository feedbackRepository,
-                               NotificationService notificationService) {
+                               NotificationService notificationService,
+                               SessionMapper sessionMapper,
+                               SessionCounterService sessionCounterService,
+                               PractitionerCalendar practitionerCalendar,
+                               SessionReminderScheduler sessionReminderScheduler,
+                               EventStreamHub eventStreamHub,
+                               ApplicationEventPublisher eventPublisher,
+                               PractitionerReadCache readCache,
+                               Pagination pagination) {
         this.userRepository = userRepository;
         this.patientProfileRepository = patientProfileRepository;
         this.therapyPlanRepository = therapyPlanRepository;
         this.therapySessionRepository = therapySessionRepository;
         this.feedbackRepository = feedbackRepository;
         this.notificationService = notificationService;
+        this.sessionMapper = sessionMapper;
+        this.sessionCounterService = sessionCounterService;
+        this.practitionerCalendar = practitionerCalendar;
+        this.sessionReminderScheduler = sessionReminderScheduler;
+        this.eventStreamHub = eventStreamHub;
+        this.eventPublisher = eventPublisher;
+        this.readCache = readCache;
+        this.pagination = pagination;
     }
 
-    public PatientProfileResponse createPatient(PatientProfileRequest request, Long practitionerId) {
+    /**
+     * Creates the patient's account and profile. The password arrives already hashed (see
+     * {@link com.ayursutra.security.PasswordHasher}) so that no connection is held while BCrypt runs.
+     */
+    public PatientProfileResponse createPatient(PatientProfileRequest request, String passwordHash, Long practitionerId) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new BadRequestException("Email is already registered");
         }
@@ -46,8 +90,7 @@ public class PractitionerService {
         User patientUser = User.builder()
                 .name(request.getName())
                 .email(request.getEmail())
-                .password(new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder()
-                        .encode(request.getPassword()))
+                .password(passwordHash)
                 .role(Role.PATIENT)
                 .build();
         patientUser = userRepository.save(patientUser);
@@ -67,14 +110,23 @@ public class PractitionerService {
         profile = patientProfileRepository.save(profile);
 
         notificationService.sendWelcomeNotification(patientUser);
+        eventPublisher.publishEvent(new PatientCreatedEvent(practitionerId, patientUser.getId()));
 
         return toPatientProfileResponse(profile);
     }
 
-    public List<PatientProfileResponse> getAllPatients(Long practitionerId) {
-        return patientProfileRepository.findByPractitionerId(practitionerId).stream()
-                .map(this::toPatientProfileResponse)
-                .collect(Collectors.toList());
+    // Served from PractitionerReadCache. SUPPORTS: a cache hit should not borrow a connection for
+    // an empty transaction; each miss is a single projection query
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CursorPage<PatientProfileResponse> getAllPatients(Long practitionerId, String cursor, Integer limit) {
+        return readCache.get(PractitionerReadCache.View.PATIENTS, practitionerId, cursor, limit, () -> {
+            int size = pagination.limit(limit);
+            PageCursor after = PageCursor.decode(cursor);
+            List<PatientProfileResponse> rows = after == null
+                    ? patientProfileRepository.findResponsesByPractitionerId(practitionerId, pagination.rows(size))
+                    : patientProfileRepository.findResponsesByPractitionerIdAfter(practitionerId, after.getId(), pagination.rows(size));
+            return CursorPage.of(rows, size, p -> PageCursor.of(p.getId()));
+        });
     }
 
     public TherapyPlanResponse createTherapyPlan(TherapyPlanRequest request, Long practitionerId) {
@@ -94,29 +146,21 @@ public class PractitionerService {
                 .build();
 
         plan = therapyPlanRepository.save(plan);
+        eventPublisher.publishEvent(new TherapyPlanCreatedEvent(practitionerId, patient.getId(), plan.getId()));
         return toTherapyPlanResponse(plan);
     }
 
     public TherapySessionResponse scheduleSession(TherapySessionRequest request, Long practitionerId) {
-        TherapyPlan plan = therapyPlanRepository.findById(request.getTherapyPlanId())
+        TherapyPlan plan = therapyPlanRepository.findWithParticipantsById(request.getTherapyPlanId())
                 .orElseThrow(() -> new ResourceNotFoundException("Therapy plan not found"));
 
         if (!plan.getPractitioner().getId().equals(practitionerId)) {
             throw new BadRequestException("You can only schedule sessions for your own therapy plans");
         }
 
-        // Conflict Detection: Check for sessions within 60 minutes of the proposed time
-        LocalDateTime proposedTime = request.getScheduledDate();
-        LocalDateTime bufferStart = proposedTime.minusMinutes(59);
-        LocalDateTime bufferEnd = proposedTime.plusMinutes(59);
-
-        List<TherapySession> conflicts = therapySessionRepository.findConflictingSessions(practitionerId, bufferStart, bufferEnd);
-        if (!conflicts.isEmpty()) {
-            TherapySession conflict = conflicts.get(0);
-            throw new BadRequestException("Schedule Conflict: You already have a '" + 
-                conflict.getProcedureName() + "' session scheduled at " + 
-                conflict.getScheduledDate().toString().replace("T", " "));
-        }
+        // Conflict detection: reserves the slot atomically, or throws if another session is within 60 minutes
+        PractitionerCalendar.Booking booking = practitionerCalendar.reserve(
+                practitionerId, request.getScheduledDate(), request.getProcedureName());
 
         TherapySession session = TherapySession.builder()
                 .therapyPlan(plan)
@@ -127,86 +171,193 @@ public class PractitionerService {
                 .build();
 
         session = therapySessionRepository.save(session);
+        practitionerCalendar.confirm(practitionerId, booking, session.getId());
+        sessionCounterService.sessionScheduled(practitionerId, plan.getPatient().getId(), plan.getPhase());
 
-        // Send session reminder & automated pre-procedure instructions
-        notificationService.sendSessionReminder(
-                plan.getPatient(),
-                session.getProcedureName(),
-                session.getScheduledDate().toString()
-        );
+        // Reminders fire before the session; pre-procedure instructions go out now (via NotificationDispatcher)
+        sessionReminderScheduler.sessionsScheduled(List.of(session));
         notificationService.sendPreProcedureInstructions(plan.getPatient(), session.getProcedureName());
 
-        return toSessionResponse(session);
+        TherapySessionResponse response = sessionMapper.toSessionResponse(session);
+        eventPublisher.publishEvent(new SessionsChangedEvent(practitionerId, plan.getPatient().getId(), List.of(session.getId())));
+        eventStreamHub.sessionsChangedAfterCommit(practitionerId, plan.getPatient().getId(), List.of(response));
+        return response;
+    }
+
+    /**
+     * Schedules a whole course for one plan. All slots are checked against the calendar in one
+     * pass and booked together; the sessions are inserted as one JDBC batch and the patient gets
+     * a single schedule summary instead of two notifications per session.
+     */
+    public List<TherapySessionResponse> scheduleCourse(BulkSessionRequest request, Long practitionerId) {
+        TherapyPlan plan = therapyPlanRepository.findWithParticipantsById(request.getTherapyPlanId())
+                .orElseThrow(() -> new ResourceNotFoundException("Therapy plan not found"));
+
+        if (!plan.getPractitioner().getId().equals(practitionerId)) {
+            throw new BadRequestException("You can only schedule sessions for your own therapy plans");
+        }
+
+        List<LocalDateTime> starts = courseSlots(request);
+        List<PractitionerCalendar.Booking> bookings =
+                practitionerCalendar.reserveAll(practitionerId, starts, request.getProcedureName());
+
+        List<TherapySession> sessions = new ArrayList<>(starts.size());
+        for (LocalDateTime start : starts) {
+            sessions.add(TherapySession.builder()
+                    .therapyPlan(plan)
+                    .procedureName(request.getProcedureName())
+                    .scheduledDate(start)
+                    .notes(request.getNotes())
+                    .status(SessionStatus.SCHEDULED)
+                    .build());
+        }
+        sessions = therapySessionRepository.saveAll(sessions);
+
+        for (int i = 0; i < sessions.size(); i++) {
+            practitionerCalendar.confirm(practitionerId, bookings.get(i), sessions.get(i).getId());
+        }
+        sessionCounterService.sessionsScheduled(practitionerId, plan.getPatient().getId(), plan.getPhase(), sessions.size());
+        sessionReminderScheduler.sessionsScheduled(sessions);
+        notificationService.sendScheduleSummary(plan.getPatient(), request.getProcedureName(), starts);
+
+        List<TherapySessionResponse> responses = sessionMapper.toSessionResponses(sessions);
+        eventPublisher.publishEvent(new SessionsChangedEvent(practitionerId, plan.getPatient().getId(),
+                sessions.stream().map(TherapySession::getId).collect(Collectors.toList())));
+        eventStreamHub.sessionsChangedAfterCommit(practitionerId, plan.getPatient().getId(), responses);
+        return responses;
     }
 
     public TherapySessionResponse updateSessionStatus(Long sessionId, SessionStatus status, Long practitionerId) {
-        TherapySession session = therapySessionRepository.findById(sessionId)
+        TherapySession session = therapySessionRepository.findWithPlanById(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Session not found"));
 
         if (!session.getTherapyPlan().getPractitioner().getId().equals(practitionerId)) {
             throw new BadRequestException("You can only update sessions for your own therapy plans");
         }
 
+        SessionStatus previousStatus = session.getStatus();
         session.setStatus(status);
         session = therapySessionRepository.save(session);
 
+        TherapyPlan plan = session.getTherapyPlan();
+        practitionerCalendar.statusChanged(practitionerId, sessionId, session.getScheduledDate(),
+                session.getProcedureName(), previousStatus, status);
+        sessionReminderScheduler.statusChanged(session, previousStatus, status);
+        sessionCounterService.statusChanged(practitionerId, plan.getPatient().getId(), plan.getPhase(),
+                previousStatus, status, feedbackRepository.existsBySessionId(sessionId));
+
         if (status == SessionStatus.COMPLETED) {
             // Trigger automated post-procedure recovery tips
             notificationService.sendPostProcedureTips(session.getTherapyPlan().getPatient(), session.getProcedureName());
             notificationService.sendFeedbackReminder(session.getTherapyPlan().getPatient(), session.getProcedureName());
         }
 
-        return toSessionResponse(session);
+        TherapySessionResponse response = sessionMapper.toSessionResponse(session);
+        eventPublisher.publishEvent(new SessionsChangedEvent(practitionerId, plan.getPatient().getId(), List.of(session.getId())));
+        eventStreamHub.sessionsChangedAfterCommit(practitionerId, plan.getPatient().getId(), List.of(response));
+        return response;
     }
 
-    public DashboardResponse getDashboard(Long practitionerId) {
-        List<TherapySession> allSessions = therapySessionRepository.findByPractitionerId(practitionerId);
-        List<TherapySession> upcoming = therapySessionRepository
-                .findByPractitionerIdAndStatus(practitionerId, SessionStatus.SCHEDULED);
-
-        long completed = allSessions.stream().filter(s -> s.getStatus() == SessionStatus.COMPLETED).count();
+    /**
+     * Free slots for the practitioner, answered from the in-memory calendar. Defaults to
+     * one-session slots over the next four weeks.
+     */
+    @Transactional(readOnly = true)
+    public List<AvailableSlot> getAvailability(Long practitionerId, LocalDateTime from, LocalDateTime to,
+                                               Integer duration, Integer limit) {
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plusDays(AVAILABILITY_DEFAULT_DAYS);
+        int minutes = duration != null ? duration : PractitionerCalendar.SESSION_MINUTES;
+
+        if (!end.isAfter(start)) {
+            throw new BadRequestException("'to' must be after 'from'");
+        }
+        if (end.isAfter(start.plusDays(AVAILABILITY_MAX_DAYS))) {
+            throw new BadRequestException("Availability range cannot exceed " + AVAILABILITY_MAX_DAYS + " days");
+        }
+        if (minutes < 1 || minutes > 24 * 60) {
+            throw new BadRequestException("Duration must be between 1 and 1440 minutes");
+        }
 
-        List<PatientProfileResponse> patients = patientProfileRepository.findAll().stream()
-                .map(this::toPatientProfileResponse)
-                .collect(Collectors.toList());
+        return practitionerCalendar.findFreeSlots(practitionerId, start, end, minutes, pagination.limit(limit));
+    }
 
-        List<Long> sessionsWithFeedback = feedbackRepository.findByPractitionerId(practitionerId).stream()
-                .map(f -> f.getSession().getId())
-                .collect(Collectors.toList());
+    public DashboardResponse getDashboard(Long practitionerId) {
+        DashboardCounts counts = sessionCounterService.getPractitionerCounts(practitionerId);
 
-        long pendingFeedback = allSessions.stream()
-                .filter(s -> s.getStatus() == SessionStatus.COMPLETED && !sessionsWithFeedback.contains(s.getId()))
-                .count();
+        List<TherapySessionResponse> upcoming = sessionMapper.attachFeedback(therapySessionRepository
+                .findResponsesByPractitionerIdAndStatus(practitionerId, SessionStatus.SCHEDULED,
+                        PageRequest.of(0, dashboardUpcomingLimit)));
 
         return DashboardResponse.builder()
-                .totalPatients(patients.size())
-                .totalSessions(allSessions.size())
-                .completedSessions(completed)
-                .upcomingSessions(upcoming.size())
-                .pendingFeedback(pendingFeedback)
-                .upcomingSessionList(upcoming.stream().map(this::toSessionResponse).collect(Collectors.toList()))
-                .recentPatients(patients.stream()
-                        .sorted((a, b) -> Long.compare(b.getId(), a.getId()))
-                        .limit(5)
-                        .collect(Collectors.toList()))
+                .totalPatients(patientProfileRepository.countByPractitionerId(practitionerId))
+                .totalSessions(counts.getTotalSessions())
+                .completedSessions(counts.getCompletedSessions())
+                .upcomingSessions(counts.getUpcomingSessions())
+                .pendingFeedback(counts.getPendingFeedback())
+                .upcomingSessionList(upcoming)
+                .recentPatients(patientProfileRepository.findRecentResponsesByPractitionerId(
+                        practitionerId, PageRequest.of(0, DASHBOARD_RECENT_PATIENTS)))
                 .build();
     }
 
-    public List<FeedbackResponse> getAllFeedback(Long practitionerId) {
-        return feedbackRepository.findByPractitionerId(practitionerId).stream()
-                .map(this::toFeedbackResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CursorPage<FeedbackResponse> getAllFeedback(Long practitionerId, String cursor, Integer limit) {
+        return readCache.get(PractitionerReadCache.View.FEEDBACK, practitionerId, cursor, limit, () -> {
+            int size = pagination.limit(limit);
+            PageCursor after = PageCursor.decode(cursor);
+            List<FeedbackResponse> rows = after == null
+                    ? feedbackRepository.findResponsesByPractitionerId(practitionerId, pagination.rows(size))
+                    : feedbackRepository.findResponsesByPractitionerIdAfter(practitionerId,
+                            after.requireTimestamp().getTimestamp(), after.getId(), pagination.rows(size));
+            return CursorPage.of(rows, size, f -> PageCursor.of(f.getCreatedAt(), f.getId()));
+        });
     }
 
-    public List<TherapyPlanResponse> getTherapyPlans(Long practitionerId) {
-        return therapyPlanRepository.findByPractitionerId(practitionerId).stream()
-                .sorted((a, b) -> Long.compare(b.getId(), a.getId()))
-                .map(this::toTherapyPlanResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CursorPage<TherapyPlanResponse> getTherapyPlans(Long practitionerId, String cursor, Integer limit) {
+        return readCache.get(PractitionerReadCache.View.PLANS, practitionerId, cursor, limit, () -> {
+            int size = pagination.limit(limit);
+            PageCursor after = PageCursor.decode(cursor);
+            List<TherapyPlanResponse> rows = after == null
+                    ? therapyPlanRepository.findResponsesByPractitionerId(practitionerId, pagination.rows(size))
+                    : therapyPlanRepository.findResponsesByPractitionerIdAfter(practitionerId, after.getId(), pagination.rows(size));
+            return CursorPage.of(rows, size, p -> PageCursor.of(p.getId()));
+        });
     }
 
     // =========== Mappers ===========
 
+    private static List<LocalDateTime> courseSlots(BulkSessionRequest request) {
+        boolean hasSlots = request.getSlots() != null && !request.getSlots().isEmpty();
+        boolean hasRule = request.getFirstSession() != null || request.getCount() != null;
+        if (hasSlots == hasRule) {
+            throw new BadRequestException("Provide either a list of slots or firstSession and count");
+        }
+
+        List<LocalDateTime> starts;
+        if (hasSlots) {
+            if (request.getSlots().contains(null)) {
+                throw new BadRequestException("Slots must not contain empty dates");
+            }
+            starts = request.getSlots();
+        } else {
+            if (request.getFirstSession() == null || request.getCount() == null) {
+                throw new BadRequestException("A recurring course needs both firstSession and count");
+            }
+            int interval = request.getIntervalDays() != null ? request.getIntervalDays() : 1;
+            starts = new ArrayList<>(request.getCount());
+            for (int i = 0; i < request.getCount() && i <= MAX_COURSE_SESSIONS; i++) {
+                starts.add(request.getFirstSession().plusDays((long) i * interval));
+            }
+        }
+
+        if (starts.size() > MAX_COURSE_SESSIONS) {
+            throw new BadRequestException("A course can have at most " + MAX_COURSE_SESSIONS + " sessions");
+        }
+        return starts;
+    }
+
     private PatientProfileResponse toPatientProfileResponse(PatientProfile profile) {
         return PatientProfileResponse.builder()
                 .id(profile.getId())
@@ -238,35 +389,4 @@ public class PractitionerService {
                 .endDate(plan.getEndDate())
                 .build();
     }
-
-    private TherapySessionResponse toSessionResponse(TherapySession session) {
-        FeedbackResponse fb = feedbackRepository.findBySessionId(session.getId())
-                .map(this::toFeedbackResponse)
-                .orElse(null);
-
-        return TherapySessionResponse.builder()
-                .id(session.getId())
-                .therapyPlanId(session.getTherapyPlan().getId())
-                .phase(session.getTherapyPlan().getPhase())
-                .procedureName(session.getProcedureName())
-                .scheduledDate(session.getScheduledDate())
-                .notes(session.getNotes())
-                .status(session.getStatus())
-                .practitionerName(session.getTherapyPlan().getPractitioner().getName())
-                .patientName(session.getTherapyPlan().getPatient().getName())
-                .feedback(fb)
-                .build();
-    }
-
-    private FeedbackResponse toFeedbackResponse(Feedback feedback) {
-        return FeedbackResponse.builder()
-                .id(feedback.getId())
-                .sessionId(feedback.getSession().getId())
-                .procedureName(feedback.getSession().getProcedureName())
-                .patientName(feedback.getPatient().getName())
-                .message(feedback.getMessage())
-                .rating(feedback.getRating())
-                .createdAt(feedback.getCreatedAt())
-                .build();
-    }
 }
@@ -0,0 +1,287 @@
+package com.ayursutra.service;
+
+import com.ayursutra.cache.Invalidation;
+import com.ayursutra.cache.InvalidationBus;
+import com.ayursutra.dto.DashboardCounts;
+import com.ayursutra.model.PatientPhaseStats;
+import com.ayursutra.model.PractitionerSessionStats;
+import com.ayursutra.model.enums.Phase;
+import com.ayursutra.model.enums.SessionStatus;
+import com.ayursutra.repository.PatientPhaseStatsRepository;
+import com.ayursutra.repository.PractitionerSessionStatsRepository;
+import com.ayursutra.repository.TherapyPlanRepository;
+import com.ayursutra.repository.TherapySessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Maintains the per-practitioner and per-patient/phase session counters behind the dashboard
+ * and therapy progress views. Deltas are applied in the caller's transaction; a missing row is
+ * seeded from the committed sessions in a separate transaction, and a periodic verify pass
+ * corrects any drift under a row lock.
+ */
+@Service
+@Transactional
+public class SessionCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionCounterService.class);
+    private static final DashboardCounts NO_SESSIONS = new DashboardCounts(0L, 0L, 0L, 0L);
+
+    private final PractitionerSessionStatsRepository practitionerStatsRepository;
+    private final PatientPhaseStatsRepository patientPhaseStatsRepository;
+    private final TherapySessionRepository therapySessionRepository;
+    private final TherapyPlanRepository therapyPlanRepository;
+    private final InvalidationBus invalidationBus;
+    private final TransactionTemplate separateTransaction;
+
+    public SessionCounterService(PractitionerSessionStatsRepository practitionerStatsRepository,
+                                 PatientPhaseStatsRepository patientPhaseStatsRepository,
+                                 TherapySessionRepository therapySessionRepository,
+                                 TherapyPlanRepository therapyPlanRepository,
+                                 InvalidationBus invalidationBus,
+                                 PlatformTransactionManager transactionManager) {
+        this.practitionerStatsRepository = practitionerStatsRepository;
+        this.patientPhaseStatsRepository = patientPhaseStatsRepository;
+        this.therapySessionRepository = therapySessionRepository;
+        this.therapyPlanRepository = therapyPlanRepository;
+        this.invalidationBus = invalidationBus;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // =========== Write-path hooks ===========
+
+    public void sessionScheduled(Long practitionerId, Long patientId, Phase phase) {
+        sessionsScheduled(practitionerId, patientId, phase, 1);
+    }
+
+    public void sessionsScheduled(Long practitionerId, Long patientId, Phase phase, int count) {
+        apply(practitionerId, patientId, phase, count, 0, count, 0);
+    }
+
+    public void statusChanged(Long practitionerId, Long patientId, Phase phase,
+                              SessionStatus from, SessionStatus to, boolean hasFeedback) {
+        if (from == to) {
+            return;
+        }
+        long pending = hasFeedback ? 0 : 1;
+        if (to == SessionStatus.COMPLETED) {
+            apply(practitionerId, patientId, phase, 0, 1, -1, pending);
+        } else {
+            apply(practitionerId, patientId, phase, 0, -1, 1, -pending);
+        }
+    }
+
+    public void feedbackSubmitted(Long practitionerId, Long patientId, Phase phase, SessionStatus previousStatus) {
+        if (previousStatus == SessionStatus.COMPLETED) {
+            // The session was already counted as awaiting feedback
+            apply(practitionerId, patientId, phase, 0, 0, 0, -1);
+        } else {
+            apply(practitionerId, patientId, phase, 0, 1, -1, 0);
+        }
+    }
+
+    private void apply(Long practitionerId, Long patientId, Phase phase,
+                       long total, long completed, long upcoming, long pending) {
+        if (practitionerStatsRepository.applyDelta(practitionerId, total, completed, upcoming, pending) == 0) {
+            seedPractitioner(practitionerId);
+            requireRow(practitionerStatsRepository.applyDelta(practitionerId, total, completed, upcoming, pending),
+                    "practitioner", practitionerId);
+        }
+        if (patientPhaseStatsRepository.applyDelta(patientId, phase, total, completed, upcoming, pending) == 0) {
+            seedPatient(patientId);
+            requireRow(patientPhaseStatsRepository.applyDelta(patientId, phase, total, completed, upcoming, pending),
+                    "patient", patientId);
+        }
+    }
+
+    // =========== Reads ===========
+
+    public DashboardCounts getPractitionerCounts(Long practitionerId) {
+        PractitionerSessionStats stats = practitionerStatsRepository.findById(practitionerId).orElse(null);
+        if (stats == null) {
+            seedPractitioner(practitionerId);
+            stats = practitionerStatsRepository.findById(practitionerId)
+                    .orElseThrow(() -> new IllegalStateException("No session counters for practitioner " + practitionerId));
+        }
+        return new DashboardCounts(stats.getTotalSessions(), stats.getCompletedSessions(),
+                stats.getUpcomingSessions(), stats.getPendingFeedback());
+    }
+
+    public Map<Phase, PatientPhaseStats> getPatientPhaseCounts(Long patientId) {
+        List<PatientPhaseStats> rows = patientPhaseStatsRepository.findByPatientId(patientId);
+        if (rows.isEmpty()) {
+            seedPatient(patientId);
+            rows = patientPhaseStatsRepository.findByPatientId(patientId);
+        }
+        Map<Phase, PatientPhaseStats> byPhase = new EnumMap<>(Phase.class);
+        rows.forEach(r -> byPhase.put(r.getPhase(), r));
+        return byPhase;
+    }
+
+    // =========== Seed / verify ===========
+
+    /**
+     * Inserts the practitioner's counter row, counted from committed sessions, in a transaction of
+     * its own. The caller's uncommitted sessions are not counted; it adds them as a delta once the
+     * row exists. If another transaction seeds the row first, its row is kept.
+     */
+    private void seedPractitioner(Long practitionerId) {
+        insertIfAbsent(() -> {
+            DashboardCounts counts = therapySessionRepository.countDashboard(practitionerId);
+            practitionerStatsRepository.insert(practitionerId, counts.getTotalSessions(),
+                    counts.getCompletedSessions(), counts.getUpcomingSessions(), counts.getPendingFeedback());
+        });
+    }
+
+    // All phases in one transaction, so a patient has either no counter rows or all of them
+    private void seedPatient(Long patientId) {
+        insertIfAbsent(() -> {
+            Map<Phase, DashboardCounts> counts = countByPhase(patientId);
+            for (Phase phase : Phase.values()) {
+                DashboardCounts c = counts.getOrDefault(phase, NO_SESSIONS);
+                patientPhaseStatsRepository.insert(patientId, phase, c.getTotalSessions(), c.getCompletedSessions(),
+                        c.getUpcomingSessions(), c.getPendingFeedback());
+            }
+        });
+    }
+
+    private void insertIfAbsent(Runnable insert) {
+        try {
+            separateTransaction.executeWithoutResult(status -> insert.run());
+        } catch (DataIntegrityViolationException e) {
+            // Seeded concurrently by another transaction
+        }
+    }
+
+    /**
+     * Recounts every practitioner's and patient's counters and corrects the ones that drifted. Each
+     * is repaired in its own short transaction that first locks the counter rows, so deltas from
+     * concurrent writes wait for the correction instead of being overwritten by it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.counters.verify-interval-ms:3600000}",
+               fixedDelayString = "${app.counters.verify-interval-ms:3600000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void verifyAll() {
+        int fixed = 0;
+
+        Set<Long> practitionerIds = new HashSet<>(therapyPlanRepository.findDistinctPractitionerIds());
+        practitionerStatsRepository.findAll().forEach(s -> practitionerIds.add(s.getPractitionerId()));
+        for (Long practitionerId : practitionerIds) {
+            if (verifyPractitioner(practitionerId)) {
+                invalidationBus.publish(List.of(Invalidation.of(Invalidation.Kind.DATA_VERSION, practitionerId)));
+                fixed++;
+            }
+        }
+
+        for (Long patientId : therapyPlanRepository.findDistinctPatientIds()) {
+            if (verifyPatient(patientId)) {
+                invalidationBus.publish(List.of(Invalidation.of(Invalidation.Kind.DATA_VERSION, patientId)));
+                fixed++;
+            }
+        }
+
+        if (fixed > 0) {
+            log.warn("Session counters: rebuilt {} drifted or missing counter sets", fixed);
+        }
+    }
+
+    private boolean verifyPractitioner(Long practitionerId) {
+        Boolean corrected = separateTransaction.execute(status -> {
+            Optional<PractitionerSessionStats> locked = practitionerStatsRepository.findForUpdate(practitionerId);
+            if (locked.isEmpty()) {
+                return null;
+            }
+            // Counted after the lock: every delta already applied to the row has committed
+            DashboardCounts expected = therapySessionRepository.countDashboard(practitionerId);
+            PractitionerSessionStats actual = locked.get();
+            if (matches(expected, actual)) {
+                return false;
+            }
+            actual.setTotalSessions(expected.getTotalSessions());
+            actual.setCompletedSessions(expected.getCompletedSessions());
+            actual.setUpcomingSessions(expected.getUpcomingSessions());
+            actual.setPendingFeedback(expected.getPendingFeedback());
+            return true;
+        });
+        if (corrected == null) {
+            seedPractitioner(practitionerId);
+            return true;
+        }
+        return corrected;
+    }
+
+    private boolean verifyPatient(Long patientId) {
+        Boolean corrected = separateTransaction.execute(status -> {
+            List<PatientPhaseStats> locked = patientPhaseStatsRepository.findForUpdate(patientId);
+            if (locked.isEmpty()) {
+                return null;
+            }
+            Map<Phase, DashboardCounts> expected = countByPhase(patientId);
+            Map<Phase, PatientPhaseStats> actual = new EnumMap<>(Phase.class);
+            locked.forEach(r -> actual.put(r.getPhase(), r));
+
+            boolean drifted = false;
+            for (Phase phase : Phase.values()) {
+                DashboardCounts e = expected.getOrDefault(phase, NO_SESSIONS);
+                PatientPhaseStats a = actual.get(phase);
+                if (a == null) {
+                    patientPhaseStatsRepository.insert(patientId, phase, e.getTotalSessions(), e.getCompletedSessions(),
+                            e.getUpcomingSessions(), e.getPendingFeedback());
+                    drifted = true;
+                } else if (!matches(e, a)) {
+                    a.setTotalSessions(e.getTotalSessions());
+                    a.setCompletedSessions(e.getCompletedSessions());
+                    a.setUpcomingSessions(e.getUpcomingSessions());
+                    a.setPendingFeedback(e.getPendingFeedback());
+                    drifted = true;
+                }
+            }
+            return drifted;
+        });
+        if (corrected == null) {
+            seedPatient(patientId);
+            return true;
+        }
+        return corrected;
+    }
+
+    private Map<Phase, DashboardCounts> countByPhase(Long patientId) {
+        Map<Phase, DashboardCounts> counts = new EnumMap<>(Phase.class);
+        therapySessionRepository.countByPhaseForPatient(patientId).forEach(c -> counts.put(c.getPhase(), c));
+        return counts;
+    }
+
+    private static void requireRow(int updated, String owner, Long id) {
+        if (updated == 0) {
+            throw new IllegalStateException("No session counters for " + owner + " " + id);
+        }
+    }
+
+    private boolean matches(DashboardCounts expected, PractitionerSessionStats actual) {
+        return expected.getTotalSessions() == actual.getTotalSessions()
+                && expected.getCompletedSessions() == actual.getCompletedSessions()
+                && expected.getUpcomingSessions() == actual.getUpcomingSessions()
+                && expected.getPendingFeedback() == actual.getPendingFeedback();
+    }
+
+    private boolean matches(DashboardCounts expected, PatientPhaseStats actual) {
+        return expected.getTotalSessions() == actual.getTotalSessions()
+                && expected.getCompletedSessions() == actual.getCompletedSessions()
+                && expected.getUpcomingSessions() == actual.getUpcomingSessions()
+                && expected.getPendingFeedback() == actual.getPendingFeedback();
+    }
+}
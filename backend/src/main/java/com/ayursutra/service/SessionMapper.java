@@ -0,0 +1,93 @@
+package com.ayursutra.service;
+
+import com.ayursutra.dto.FeedbackResponse;
+import com.ayursutra.dto.TherapySessionResponse;
+import com.ayursutra.model.Feedback;
+import com.ayursutra.model.TherapySession;
+import com.ayursutra.repository.FeedbackRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Maps sessions to responses for both the patient and practitioner views. The list variant
+ * loads feedback for all sessions with a single IN query instead of one lookup per row;
+ * callers are expected to pass sessions fetched together with plan, patient and practitioner.
+ */
+@Component
+public class SessionMapper {
+
+    private final FeedbackRepository feedbackRepository;
+
+    public SessionMapper(FeedbackRepository feedbackRepository) {
+        this.feedbackRepository = feedbackRepository;
+    }
+
+    public List<TherapySessionResponse> toSessionResponses(List<TherapySession> sessions) {
+        if (sessions.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> sessionIds = sessions.stream().map(TherapySession::getId).collect(Collectors.toList());
+        Map<Long, FeedbackResponse> feedbackBySession = feedbackRepository.findBySessionIdIn(sessionIds).stream()
+                .collect(Collectors.toMap(f -> f.getSession().getId(), this::toFeedbackResponse, (a, b) -> a));
+
+        return sessions.stream()
+                .map(s -> toSessionResponse(s, feedbackBySession.get(s.getId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Fills in feedback for session rows that were read as projections, again with one IN query.
+     */
+    public List<TherapySessionResponse> attachFeedback(List<TherapySessionResponse> sessions) {
+        if (sessions.isEmpty()) {
+            return sessions;
+        }
+
+        List<Long> sessionIds = sessions.stream().map(TherapySessionResponse::getId).collect(Collectors.toList());
+        Map<Long, FeedbackResponse> feedbackBySession = feedbackRepository.findResponsesBySessionIdIn(sessionIds).stream()
+                .collect(Collectors.toMap(FeedbackResponse::getSessionId, f -> f, (a, b) -> a));
+
+        sessions.forEach(s -> s.setFeedback(feedbackBySession.get(s.getId())));
+        return sessions;
+    }
+
+    public TherapySessionResponse toSessionResponse(TherapySession session) {
+        FeedbackResponse fb = feedbackRepository.findBySessionId(session.getId())
+                .map(this::toFeedbackResponse)
+                .orElse(null);
+        return toSessionResponse(session, fb);
+    }
+
+    public FeedbackResponse toFeedbackResponse(Feedback feedback) {
+        return FeedbackResponse.builder()
+                .id(feedback.getId())
+                .sessionId(feedback.getSession().getId())
+                .procedureName(feedback.getSession().getProcedureName())
+                .patientName(feedback.getPatient().getName())
+                .message(feedback.getMessage())
+                .rating(feedback.getRating())
+                .symptoms(feedback.getSymptoms())
+                .sideEffects(feedback.getSideEffects())
+                .improvementLevel(feedback.getImprovementLevel())
+                .createdAt(feedback.getCreatedAt())
+                .build();
+    }
+
+    public TherapySessionResponse toSessionResponse(TherapySession session, FeedbackResponse fb) {
+        return TherapySessionResponse.builder()
+                .id(session.getId())
+                .therapyPlanId(session.getTherapyPlan().getId())
+                .phase(session.getTherapyPlan().getPhase())
+                .procedureName(session.getProcedureName())
+                .scheduledDate(session.getScheduledDate())
+                .notes(session.getNotes())
+                .status(session.getStatus())
+                .practitionerName(session.getTherapyPlan().getPractitioner().getName())
+                .patientName(session.getTherapyPlan().getPatient().getName())
+                .feedback(fb)
+                .build();
+    }
+}
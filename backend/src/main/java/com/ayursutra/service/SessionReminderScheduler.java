@@ -0,0 +1,231 @@
+package com.ayursutra.service;
+
+import com.ayursutra.model.SessionReminder;
+import com.ayursutra.model.TherapySession;
+import com.ayursutra.model.enums.SessionStatus;
+import com.ayursutra.repository.SessionReminderRepository;
+import com.ayursutra.repository.TherapySessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends session reminders at fixed offsets before each scheduled session (24h and 2h by default).
+ * <p>
+ * Pending reminders are rows in {@code session_reminders}. Only the ones due within the load
+ * horizon are held in memory, on a hierarchical {@link TimingWheel} that a single thread advances
+ * every second. Firing deletes the row first, and only the transaction that actually deleted it
+ * queues the notification. So a reminder is sent once even with several nodes or after a restart,
+ * and a restart simply reloads whatever is still pending (overdue rows fire straight away).
+ */
+@Component
+public class SessionReminderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionReminderScheduler.class);
+    private static final long TICK_MS = 1000;
+    private static final int WHEEL_SIZE = 60;
+
+    private final SessionReminderRepository reminderRepository;
+    private final TherapySessionRepository therapySessionRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final int[] offsetsMinutes;
+    private final long horizonMinutes;
+    private final long loadIntervalMs;
+    private final int loadBatchSize;
+    private final Counter fired;
+
+    // The wheel and the ids on it are guarded by the wheel's monitor
+    private final TimingWheel<Pending> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, System.currentTimeMillis());
+    private final Set<Long> resident = new HashSet<>();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "session-reminders");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public SessionReminderScheduler(SessionReminderRepository reminderRepository,
+                                    TherapySessionRepository therapySessionRepository,
+                                    NotificationService notificationService,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.reminders.offsets-minutes:1440,120}") int[] offsetsMinutes,
+                                    @Value("${app.reminders.horizon-minutes:10}") long horizonMinutes,
+                                    @Value("${app.reminders.load-interval-ms:60000}") long loadIntervalMs,
+                                    @Value("${app.reminders.load-batch-size:10000}") int loadBatchSize) {
+        this.reminderRepository = reminderRepository;
+        this.therapySessionRepository = therapySessionRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.offsetsMinutes = offsetsMinutes;
+        this.horizonMinutes = horizonMinutes;
+        this.loadIntervalMs = loadIntervalMs;
+        this.loadBatchSize = loadBatchSize;
+
+        this.fired = Counter.builder("reminders.fired").register(meterRegistry);
+        Gauge.builder("reminders.resident", resident, r -> {
+            synchronized (wheel) {
+                return r.size();
+            }
+        }).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(this::load, 0, loadIntervalMs, TimeUnit.MILLISECONDS);
+        executor.scheduleAtFixedRate(this::tick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // =========== Write-path hooks ===========
+
+    /**
+     * Creates the reminders for newly scheduled sessions; offsets already in the past are skipped.
+     */
+    public void sessionsScheduled(List<TherapySession> sessions) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SessionReminder> reminders = new ArrayList<>();
+        for (TherapySession session : sessions) {
+            for (int offset : offsetsMinutes) {
+                LocalDateTime dueAt = session.getScheduledDate().minusMinutes(offset);
+                if (dueAt.isAfter(now)) {
+                    reminders.add(SessionReminder.builder()
+                            .sessionId(session.getId())
+                            .offsetMinutes(offset)
+                            .dueAt(dueAt)
+                            .build());
+                }
+            }
+        }
+        if (reminders.isEmpty()) {
+            return;
+        }
+        reminderRepository.saveAll(reminders);
+
+        // Reminders due inside the current window would otherwise wait for the next load
+        afterCommit(() -> reminders.forEach(this::enqueue));
+    }
+
+    public void statusChanged(TherapySession session, SessionStatus from, SessionStatus to) {
+        if (from == to) {
+            return;
+        }
+        if (from == SessionStatus.SCHEDULED) {
+            reminderRepository.deleteBySessionId(session.getId());
+        }
+        if (to == SessionStatus.SCHEDULED) {
+            sessionsScheduled(List.of(session));
+        }
+    }
+
+    // =========== Wheel ===========
+
+    private void load() {
+        try {
+            LocalDateTime horizon = LocalDateTime.now().plusMinutes(horizonMinutes);
+            reminderRepository.findDueBefore(horizon, PageRequest.of(0, loadBatchSize)).forEach(this::enqueue);
+        } catch (RuntimeException e) {
+            log.error("Loading session reminders failed", e);
+        }
+    }
+
+    private void enqueue(SessionReminder reminder) {
+        if (reminder.getDueAt().isAfter(LocalDateTime.now().plusMinutes(horizonMinutes))) {
+            return;
+        }
+        // Overdue reminders go on the next tick
+        long dueMs = Math.max(reminder.getDueAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                System.currentTimeMillis() + TICK_MS);
+        synchronized (wheel) {
+            if (resident.add(reminder.getId())) {
+                wheel.add(dueMs, new Pending(reminder.getId(), reminder.getSessionId()));
+            }
+        }
+    }
+
+    private void tick() {
+        try {
+            List<Pending> due = new ArrayList<>();
+            synchronized (wheel) {
+                wheel.advanceTo(System.currentTimeMillis(), due::add);
+                for (Pending pending : due) {
+                    resident.remove(pending.reminderId);
+                }
+            }
+            if (!due.isEmpty()) {
+                fire(due);
+            }
+        } catch (RuntimeException e) {
+            log.error("Firing session reminders failed", e);
+        }
+    }
+
+    private void fire(List<Pending> due) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> sessionIds = new HashSet<>();
+            for (Pending pending : due) {
+                if (reminderRepository.claim(pending.reminderId) == 1) {
+                    sessionIds.add(pending.sessionId);
+                }
+            }
+            if (sessionIds.isEmpty()) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (TherapySession session : therapySessionRepository.findWithPlanByIdIn(sessionIds)) {
+                if (session.getStatus() == SessionStatus.SCHEDULED && session.getScheduledDate().isAfter(now)) {
+                    notificationService.sendSessionReminder(session.getTherapyPlan().getPatient(),
+                            session.getProcedureName(), session.getScheduledDate().toString());
+                    fired.increment();
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class Pending {
+        private final Long reminderId;
+        private final Long sessionId;
+
+        private Pending(Long reminderId, Long sessionId) {
+            this.reminderId = reminderId;
+            this.sessionId = sessionId;
+        }
+    }
+}
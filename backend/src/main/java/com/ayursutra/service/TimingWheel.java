@@ -0,0 +1,99 @@
+package com.ayursutra.service;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Each level is a ring of buckets, each bucket covering one tick.
+ * Items beyond a level's span go to a coarser overflow level, created on demand, and are
+ * cascaded down as time reaches their bucket. Adding an item and expiring one are O(1).
+ * <p>
+ * Items fire when time reaches the start of their finest-level tick, so up to one base tick early.
+ * Not thread-safe; callers synchronize.
+ */
+class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long intervalMs;
+    private final ArrayDeque<Item<T>>[] buckets;
+    private long currentTime;
+    private TimingWheel<T> overflow;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.intervalMs = tickMs * wheelSize;
+        this.buckets = new ArrayDeque[wheelSize];
+        this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+    }
+
+    /**
+     * Adds an item; returns false (and keeps nothing) if it is already due.
+     */
+    boolean add(long expirationMs, T value) {
+        return add(new Item<>(expirationMs, value));
+    }
+
+    /**
+     * Moves time forward to {@code nowMs}, handing every item that falls due to {@code due}.
+     */
+    void advanceTo(long nowMs, Consumer<T> due) {
+        advance(nowMs, item -> due.accept(item.value));
+    }
+
+    private boolean add(Item<T> item) {
+        if (item.expirationMs < currentTime + tickMs) {
+            return false;
+        }
+        if (item.expirationMs < currentTime + intervalMs) {
+            int index = bucketFor(item.expirationMs);
+            if (buckets[index] == null) {
+                buckets[index] = new ArrayDeque<>();
+            }
+            buckets[index].add(item);
+        } else {
+            if (overflow == null) {
+                overflow = new TimingWheel<>(intervalMs, wheelSize, currentTime);
+            }
+            overflow.add(item);
+        }
+        return true;
+    }
+
+    // On an overflow level, "expired" items are handed back to the level below for re-bucketing
+    private void advance(long nowMs, Consumer<Item<T>> expired) {
+        while (currentTime + tickMs <= nowMs) {
+            currentTime += tickMs;
+            if (overflow != null && Math.floorMod(currentTime, overflow.tickMs) == 0) {
+                overflow.advance(currentTime, item -> {
+                    if (!add(item)) {
+                        expired.accept(item);
+                    }
+                });
+            }
+            ArrayDeque<Item<T>> bucket = buckets[bucketFor(currentTime)];
+            if (bucket != null) {
+                Item<T> item;
+                while ((item = bucket.poll()) != null) {
+                    expired.accept(item);
+                }
+            }
+        }
+    }
+
+    private int bucketFor(long timeMs) {
+        return (int) Math.floorMod(Math.floorDiv(timeMs, tickMs), (long) wheelSize);
+    }
+
+    private static final class Item<T> {
+        private final long expirationMs;
+        private final T value;
+
+        private Item(long expirationMs, T value) {
+            this.expirationMs = expirationMs;
+            this.value = value;
+        }
+    }
+}
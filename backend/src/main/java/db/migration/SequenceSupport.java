@@ -0,0 +1,34 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Helpers shared by the Java migrations that move tables from identity columns to pooled sequences.
+ */
+final class SequenceSupport {
+
+    private SequenceSupport() {
+    }
+
+    /**
+     * Creates {@code sequence} so that every id it hands out is above the table's current maximum.
+     * The start leaves one full block of headroom, which keeps both the pooled and pooled-lo
+     * optimizers clear of existing rows. Portable across H2 and PostgreSQL.
+     */
+    static void createSequenceAfterMaxId(Connection connection, String sequence, String table, int increment)
+            throws SQLException {
+        long maxId;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            maxId = rs.getLong(1);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SEQUENCE " + sequence +
+                    " START WITH " + (maxId + increment + 1) + " INCREMENT BY " + increment);
+        }
+    }
+}
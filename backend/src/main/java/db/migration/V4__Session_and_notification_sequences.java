@@ -0,0 +1,17 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Pooled sequences for therapy_sessions and notifications, so their inserts can be JDBC-batched.
+ * The identity columns stay (GENERATED BY DEFAULT accepts explicit ids).
+ */
+public class V4__Session_and_notification_sequences extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        SequenceSupport.createSequenceAfterMaxId(context.getConnection(), "therapy_sessions_seq", "therapy_sessions", 50);
+        SequenceSupport.createSequenceAfterMaxId(context.getConnection(), "notifications_seq", "notifications", 50);
+    }
+}
@@ -0,0 +1,18 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Pooled sequences for the remaining entity tables, completing the move off identity ids.
+ */
+public class V5__Remaining_entity_sequences extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        SequenceSupport.createSequenceAfterMaxId(context.getConnection(), "users_seq", "users", 50);
+        SequenceSupport.createSequenceAfterMaxId(context.getConnection(), "patient_profiles_seq", "patient_profiles", 50);
+        SequenceSupport.createSequenceAfterMaxId(context.getConnection(), "therapy_plans_seq", "therapy_plans", 50);
+        SequenceSupport.createSequenceAfterMaxId(context.getConnection(), "feedbacks_seq", "feedbacks", 50);
+    }
+}
@@ -0,0 +1,3 @@
+-- Invalidation kinds now also name calendars and event streams (PRACTITIONER_CALENDAR is 21 characters)
+
+ALTER TABLE cache_invalidations ALTER COLUMN kind SET DATA TYPE VARCHAR(40);
@@ -0,0 +1,91 @@
+-- AyurSutra baseline schema (portable across H2 2.x and PostgreSQL)
+
+CREATE TABLE users (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name            VARCHAR(255) NOT NULL,
+    email           VARCHAR(255) NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    role            VARCHAR(20)  NOT NULL,
+    token_version   INTEGER      DEFAULT 0 NOT NULL,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE patient_profiles (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id             BIGINT NOT NULL,
+    practitioner_id     BIGINT,
+    age                 INTEGER,
+    gender              VARCHAR(255),
+    blood_group         VARCHAR(255),
+    emergency_contact   VARCHAR(255),
+    prakriti            VARCHAR(100),
+    medical_history     TEXT,
+    notes               TEXT,
+    CONSTRAINT uk_patient_profiles_user UNIQUE (user_id),
+    CONSTRAINT fk_patient_profiles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_patient_profiles_practitioner FOREIGN KEY (practitioner_id) REFERENCES users (id)
+);
+
+CREATE TABLE therapy_plans (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id          BIGINT      NOT NULL,
+    practitioner_id     BIGINT      NOT NULL,
+    phase               VARCHAR(20) NOT NULL,
+    description         TEXT,
+    start_date          DATE,
+    end_date            DATE,
+    CONSTRAINT fk_therapy_plans_patient FOREIGN KEY (patient_id) REFERENCES users (id),
+    CONSTRAINT fk_therapy_plans_practitioner FOREIGN KEY (practitioner_id) REFERENCES users (id)
+);
+
+CREATE TABLE therapy_sessions (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    therapy_plan_id     BIGINT       NOT NULL,
+    procedure_name      VARCHAR(255) NOT NULL,
+    scheduled_date      TIMESTAMP    NOT NULL,
+    notes               TEXT,
+    status              VARCHAR(20)  NOT NULL,
+    CONSTRAINT fk_therapy_sessions_plan FOREIGN KEY (therapy_plan_id) REFERENCES therapy_plans (id)
+);
+
+CREATE TABLE feedbacks (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    session_id          BIGINT  NOT NULL,
+    patient_id          BIGINT  NOT NULL,
+    message             TEXT    NOT NULL,
+    rating              INTEGER NOT NULL,
+    symptoms            TEXT,
+    side_effects        TEXT,
+    improvement_level   INTEGER,
+    created_at          TIMESTAMP,
+    CONSTRAINT fk_feedbacks_session FOREIGN KEY (session_id) REFERENCES therapy_sessions (id),
+    CONSTRAINT fk_feedbacks_patient FOREIGN KEY (patient_id) REFERENCES users (id)
+);
+
+CREATE TABLE notifications (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id             BIGINT       NOT NULL,
+    subject             VARCHAR(255) NOT NULL,
+    body                TEXT         NOT NULL,
+    sent                BOOLEAN      NOT NULL,
+    created_at          TIMESTAMP,
+    CONSTRAINT fk_notifications_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE practitioner_session_stats (
+    practitioner_id     BIGINT PRIMARY KEY,
+    total_sessions      BIGINT NOT NULL,
+    completed_sessions  BIGINT NOT NULL,
+    upcoming_sessions   BIGINT NOT NULL,
+    pending_feedback    BIGINT NOT NULL
+);
+
+CREATE TABLE patient_phase_stats (
+    patient_id          BIGINT      NOT NULL,
+    phase               VARCHAR(20) NOT NULL,
+    total_sessions      BIGINT      NOT NULL,
+    completed_sessions  BIGINT      NOT NULL,
+    upcoming_sessions   BIGINT      NOT NULL,
+    pending_feedback    BIGINT      NOT NULL,
+    PRIMARY KEY (patient_id, phase)
+);
@@ -0,0 +1,24 @@
+-- Indexes for the repository access paths
+
+-- Practitioner plan lists (keyset on id) and the plan side of every practitioner session join
+CREATE INDEX idx_therapy_plans_practitioner ON therapy_plans (practitioner_id, id);
+
+-- Patient session/progress queries join through the plan by patient
+CREATE INDEX idx_therapy_plans_patient ON therapy_plans (patient_id, phase);
+
+-- Upcoming sessions and conflict checks: plan + status + time range
+CREATE INDEX idx_therapy_sessions_plan_status_date ON therapy_sessions (therapy_plan_id, status, scheduled_date);
+
+-- Session timelines ordered by (scheduled_date, id)
+CREATE INDEX idx_therapy_sessions_plan_date ON therapy_sessions (therapy_plan_id, scheduled_date, id);
+
+-- At most one feedback per session; also serves findBySessionId and the pending-feedback anti-join
+CREATE UNIQUE INDEX uk_feedbacks_session ON feedbacks (session_id);
+
+CREATE INDEX idx_feedbacks_patient ON feedbacks (patient_id, created_at);
+
+-- Notification inbox, keyset on (created_at, id)
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at, id);
+
+-- Practitioner patient lists, keyset on id
+CREATE INDEX idx_patient_profiles_practitioner ON patient_profiles (practitioner_id, id);
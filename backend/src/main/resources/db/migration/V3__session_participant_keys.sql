@@ -0,0 +1,33 @@
+-- Carry practitioner/patient keys on sessions and feedback so their queries skip the plan join
+
+ALTER TABLE therapy_sessions ADD COLUMN practitioner_id BIGINT;
+ALTER TABLE therapy_sessions ADD COLUMN patient_id BIGINT;
+
+UPDATE therapy_sessions
+SET practitioner_id = (SELECT tp.practitioner_id FROM therapy_plans tp WHERE tp.id = therapy_sessions.therapy_plan_id),
+    patient_id      = (SELECT tp.patient_id FROM therapy_plans tp WHERE tp.id = therapy_sessions.therapy_plan_id);
+
+ALTER TABLE therapy_sessions ALTER COLUMN practitioner_id SET NOT NULL;
+ALTER TABLE therapy_sessions ALTER COLUMN patient_id SET NOT NULL;
+ALTER TABLE therapy_sessions ADD CONSTRAINT fk_therapy_sessions_practitioner FOREIGN KEY (practitioner_id) REFERENCES users (id);
+ALTER TABLE therapy_sessions ADD CONSTRAINT fk_therapy_sessions_patient FOREIGN KEY (patient_id) REFERENCES users (id);
+
+ALTER TABLE feedbacks ADD COLUMN practitioner_id BIGINT;
+
+UPDATE feedbacks
+SET practitioner_id = (SELECT s.practitioner_id FROM therapy_sessions s WHERE s.id = feedbacks.session_id);
+
+ALTER TABLE feedbacks ALTER COLUMN practitioner_id SET NOT NULL;
+ALTER TABLE feedbacks ADD CONSTRAINT fk_feedbacks_practitioner FOREIGN KEY (practitioner_id) REFERENCES users (id);
+
+-- Practitioner-side access paths now filter on the session row itself
+DROP INDEX idx_therapy_sessions_plan_status_date;
+
+-- Conflict checks and upcoming lists: single-table range scan on (practitioner, status, time)
+CREATE INDEX idx_therapy_sessions_practitioner_status_date ON therapy_sessions (practitioner_id, status, scheduled_date, id);
+
+-- Patient timelines ordered by (scheduled_date, id)
+CREATE INDEX idx_therapy_sessions_patient_date ON therapy_sessions (patient_id, scheduled_date, id);
+
+-- Practitioner feedback lists, keyset on (created_at, id)
+CREATE INDEX idx_feedbacks_practitioner_created ON feedbacks (practitioner_id, created_at, id);
@@ -0,0 +1,19 @@
+-- Transactional outbox for notifications: request paths append, the dispatcher drains
+
+CREATE SEQUENCE notification_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE notification_outbox (
+    id                  BIGINT      PRIMARY KEY,
+    user_id             BIGINT      NOT NULL,
+    type                VARCHAR(30) NOT NULL,
+    payload             TEXT        NOT NULL,
+    attempts            INTEGER     NOT NULL,
+    next_attempt_at     TIMESTAMP   NOT NULL,
+    claim_token         VARCHAR(36),
+    created_at          TIMESTAMP
+);
+
+-- Due-event scan
+CREATE INDEX idx_notification_outbox_due ON notification_outbox (next_attempt_at, id);
+
+CREATE INDEX idx_notification_outbox_claim ON notification_outbox (claim_token);
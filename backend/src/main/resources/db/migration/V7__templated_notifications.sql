@@ -0,0 +1,7 @@
+-- Notifications are stored as template + arguments and rendered on read.
+-- subject/body stay for rows written before this change.
+
+ALTER TABLE notifications ADD COLUMN template VARCHAR(30);
+ALTER TABLE notifications ADD COLUMN args TEXT;
+ALTER TABLE notifications ALTER COLUMN subject DROP NOT NULL;
+ALTER TABLE notifications ALTER COLUMN body DROP NOT NULL;
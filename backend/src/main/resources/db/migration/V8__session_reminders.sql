@@ -0,0 +1,15 @@
+-- Pending time-based session reminders; rows are deleted when they fire
+
+CREATE SEQUENCE session_reminders_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE session_reminders (
+    id                  BIGINT    PRIMARY KEY,
+    session_id          BIGINT    NOT NULL,
+    offset_minutes      INTEGER   NOT NULL,
+    due_at              TIMESTAMP NOT NULL,
+    CONSTRAINT uk_session_reminders_session_offset UNIQUE (session_id, offset_minutes),
+    CONSTRAINT fk_session_reminders_session FOREIGN KEY (session_id) REFERENCES therapy_sessions (id)
+);
+
+-- The scheduler loads only the next window: due_at < now + horizon
+CREATE INDEX idx_session_reminders_due ON session_reminders (due_at, id);
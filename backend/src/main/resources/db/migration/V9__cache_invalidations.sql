@@ -0,0 +1,13 @@
+-- Change table for the JDBC invalidation bus: writers append compact cache keys in their own
+-- transaction, every node polls for rows from the others. Rows are pruned after a retention period
+
+CREATE TABLE cache_invalidations (
+    id                  BIGINT      GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    node_id             VARCHAR(36) NOT NULL,
+    kind                VARCHAR(20) NOT NULL,
+    entity_key          BIGINT      NOT NULL,
+    created_at          TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Pollers read a trailing window by creation time
+CREATE INDEX idx_cache_invalidations_created ON cache_invalidations (created_at);
@@ -1,4 +1,4 @@
--- AyurSutra Seed Data for H2
+-- AyurSutra demo seed data
 -- Password for all users: password123 (BCrypt encoded: $2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy)
 
 -- Insert Practitioner
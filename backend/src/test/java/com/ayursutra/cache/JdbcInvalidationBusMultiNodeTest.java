@@ -0,0 +1,195 @@
+package com.ayursutra.cache;
+
+import com.ayursutra.dto.TherapySessionRequest;
+import com.ayursutra.repository.TherapySessionRepository;
+import com.ayursutra.repository.UserRepository;
+import com.ayursutra.service.DataVersions;
+import com.ayursutra.service.PractitionerCalendar;
+import com.ayursutra.service.PractitionerFixtures;
+import com.ayursutra.service.PractitionerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static com.ayursutra.cache.Invalidation.Kind.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes in one JVM over one database: the application context is node A, and a second
+ * {@link JdbcInvalidationBus} with its own data versions and calendar is node B. Writes on either
+ * node must reach the other within a bounded lag of a few poll intervals, and never come back to
+ * the node that made them.
+ */
+@SpringBootTest(properties = {
+        "app.invalidation.transport=jdbc",
+        "app.invalidation.jdbc.poll-interval-ms=" + JdbcInvalidationBusMultiNodeTest.POLL_INTERVAL_MS
+})
+class JdbcInvalidationBusMultiNodeTest {
+
+    static final long POLL_INTERVAL_MS = 100;
+    private static final long MAX_LAG_MS = 2_000;
+    private static final int BURST = 500;
+
+    @TestConfiguration
+    static class NodeARecorder {
+
+        @Bean
+        Recorder nodeARecorder() {
+            return new Recorder();
+        }
+    }
+
+    @Autowired
+    private Recorder nodeARecorder;
+
+    @Autowired
+    private DataVersions nodeADataVersions;
+
+    @Autowired
+    private PractitionerService practitionerService;
+
+    @Autowired
+    private PractitionerFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TherapySessionRepository therapySessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Recorder nodeBRecorder = new Recorder();
+    private DataVersions nodeBDataVersions;
+    private PractitionerCalendar nodeBCalendar;
+    private JdbcInvalidationBus nodeB;
+
+    @BeforeEach
+    void startNodeB() {
+        nodeBDataVersions = new DataVersions();
+        nodeBCalendar = new PractitionerCalendar(therapySessionRepository, userRepository, 10_000, 60);
+        nodeB = new JdbcInvalidationBus(List.of(nodeBDataVersions, nodeBCalendar, nodeBRecorder),
+                jdbcTemplate, new SimpleMeterRegistry(), POLL_INTERVAL_MS, 15, 10);
+        nodeB.start();
+    }
+
+    @AfterEach
+    void stopNodeB() {
+        nodeB.shutdown();
+    }
+
+    @Test
+    void sessionBookedOnNodeAReachesNodeB() {
+        Long practitionerId = fixtures.practitioner();
+        Long patientId = fixtures.patient(practitionerId);
+        Long planId = fixtures.plan(practitionerId, patientId);
+        LocalDateTime start = LocalDate.now().plusDays(5).atTime(10, 0);
+
+        // Node B has the practitioner's schedule loaded and sees the hour free
+        assertThat(firstFreeSlot(practitionerId, start)).isEqualTo(start);
+        long versionBefore = nodeBDataVersions.current(practitionerId);
+
+        long bookedAt = System.nanoTime();
+        practitionerService.scheduleSession(new TherapySessionRequest(planId, "Abhyanga", start, null), practitionerId);
+
+        Invalidation patientStream = Invalidation.of(SESSIONS_STREAM, patientId);
+        awaitWithinLag(() -> nodeBRecorder.received(patientStream));
+        assertThat(nodeBRecorder.lagMs(patientStream, bookedAt)).isLessThan(MAX_LAG_MS);
+        assertThat(nodeBRecorder.received(Invalidation.of(SESSIONS_STREAM, practitionerId))).isTrue();
+        assertThat(nodeBRecorder.received(Invalidation.of(PRACTITIONER_CALENDAR, practitionerId))).isTrue();
+        assertThat(nodeBDataVersions.current(practitionerId)).isGreaterThan(versionBefore);
+        // The dropped schedule is reloaded with node A's booking in it
+        assertThat(firstFreeSlot(practitionerId, start)).isAfterOrEqualTo(start.plusHours(1));
+
+        // Node A made the write and must not get it back from the table
+        assertThat(nodeARecorder.received(patientStream)).isFalse();
+    }
+
+    @Test
+    void burstFromNodeBReachesNodeAWithinBoundedLag() {
+        List<Long> keys = new ArrayList<>(BURST);
+        for (long key = 0; key < BURST; key++) {
+            keys.add(-1_000_000L - key);
+        }
+
+        long publishedAt = System.nanoTime();
+        for (Long key : keys) {
+            nodeB.publish(List.of(Invalidation.of(DATA_VERSION, key)));
+        }
+
+        awaitWithinLag(() -> keys.stream().allMatch(key -> nodeARecorder.received(Invalidation.of(DATA_VERSION, key))));
+        long maxLagMs = keys.stream()
+                .mapToLong(key -> nodeARecorder.lagMs(Invalidation.of(DATA_VERSION, key), publishedAt))
+                .max()
+                .orElseThrow();
+        assertThat(maxLagMs).isLessThan(MAX_LAG_MS);
+        assertThat(keys).allSatisfy(key -> assertThat(nodeADataVersions.current(key)).isEqualTo(1));
+
+        // A few more polls: node B must not deliver its own rows to itself
+        sleep(3 * POLL_INTERVAL_MS);
+        assertThat(keys).noneMatch(key -> nodeBRecorder.received(Invalidation.of(DATA_VERSION, key)));
+    }
+
+    private LocalDateTime firstFreeSlot(Long practitionerId, LocalDateTime from) {
+        return nodeBCalendar.findFreeSlots(practitionerId, from, from.plusHours(4), 60, 1).get(0).getStart();
+    }
+
+    private static void awaitWithinLag(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_LAG_MS);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("not delivered within %d ms", MAX_LAG_MS).isLessThan(deadline);
+            sleep(10);
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Remembers when each invalidation from another node first arrived.
+     */
+    static final class Recorder implements InvalidationListener {
+
+        private final Map<Invalidation, Long> receivedAt = new ConcurrentHashMap<>();
+
+        @Override
+        public void onInvalidations(List<Invalidation> invalidations) {
+        }
+
+        @Override
+        public void onRemoteInvalidations(List<Invalidation> invalidations) {
+            long now = System.nanoTime();
+            invalidations.forEach(invalidation -> receivedAt.putIfAbsent(invalidation, now));
+        }
+
+        boolean received(Invalidation invalidation) {
+            return receivedAt.containsKey(invalidation);
+        }
+
+        long lagMs(Invalidation invalidation, long sentAt) {
+            return TimeUnit.NANOSECONDS.toMillis(receivedAt.get(invalidation) - sentAt);
+        }
+    }
+}
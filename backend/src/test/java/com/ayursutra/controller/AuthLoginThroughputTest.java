@@ -0,0 +1,102 @@
+package com.ayursutra.controller;
+
+import com.ayursutra.dto.AuthResponse;
+import com.ayursutra.dto.LoginRequest;
+import com.ayursutra.dto.RegisterRequest;
+import com.ayursutra.model.enums.Role;
+import com.ayursutra.service.AuthService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives concurrent logins through {@code /auth/login} against a deliberately small hashing pool.
+ * With BCrypt confined to that pool, the endpoint either answers (200 for the right password, 401
+ * for a wrong one) or sheds the excess with 429 and {@code Retry-After: 1}; it never fails for
+ * lack of request threads or connections, and keeps logging users in while it sheds.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.security.hashing.threads=2",
+        "app.security.hashing.queue-capacity=4"
+})
+class AuthLoginThroughputTest {
+
+    private static final int CLIENTS = 32;
+    private static final int LOGINS = 400;
+    // Two BCrypt threads manage tens of logins per second; this only catches a pool that stalls
+    private static final double MIN_LOGINS_PER_SECOND = 5;
+    private static final String PASSWORD = "panchakarma";
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private AuthService authService;
+
+    private String email;
+
+    @BeforeEach
+    void registerUser() {
+        email = "login-" + UUID.randomUUID() + "@example.com";
+        authService.register(new RegisterRequest("Login Load", email, PASSWORD, Role.PATIENT));
+    }
+
+    @Test
+    void wrongPasswordIsRejected() {
+        ResponseEntity<Map> response = rest.postForEntity("/auth/login", new LoginRequest(email, "wrong"), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void sustainsConcurrentLogins() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        List<Future<ResponseEntity<AuthResponse>>> results = new ArrayList<>();
+
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < LOGINS; i++) {
+                results.add(clients.submit(() ->
+                        rest.postForEntity("/auth/login", new LoginRequest(email, PASSWORD), AuthResponse.class)));
+            }
+            for (Future<ResponseEntity<AuthResponse>> result : results) {
+                ResponseEntity<AuthResponse> response = result.get(60, TimeUnit.SECONDS);
+                HttpStatus status = HttpStatus.valueOf(response.getStatusCode().value());
+                if (status == HttpStatus.OK) {
+                    ok.incrementAndGet();
+                } else if (status == HttpStatus.TOO_MANY_REQUESTS) {
+                    assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+                    shed.incrementAndGet();
+                } else {
+                    throw new AssertionError("Unexpected login status " + status);
+                }
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertThat(ok.get() + shed.get()).isEqualTo(LOGINS);
+        // 32 clients against 2 threads and 4 queue slots must overflow the pool
+        assertThat(shed.get()).isPositive();
+        assertThat(ok.get() / seconds)
+                .as("%d logins succeeded in %.2fs", ok.get(), seconds)
+                .isGreaterThan(MIN_LOGINS_PER_SECOND);
+    }
+}
@@ -0,0 +1,115 @@
+package com.ayursutra.notification;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+/**
+ * Sends through an embedded GreenMail SMTP server: messages arrive intact, a recipient the server
+ * rejects fails permanently, an unreachable server fails retryably, and a burst over many domains
+ * is carried by the pooled connections.
+ */
+class SmtpNotificationChannelTest {
+
+    private static final int POOL_SIZE = 4;
+    private static final int SENDERS = 16;
+    private static final int MESSAGES = 1_000;
+    private static final int DOMAINS = 8;
+    private static final double MIN_MESSAGES_PER_SECOND = 50;
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void deliversMessage() throws Exception {
+        SmtpNotificationChannel channel = channel(ServerSetupTest.SMTP.getPort());
+
+        channel.deliver(new OutgoingMessage("asha@example.com", "Asha", "🌿 Session Scheduled", "Dear Asha,\n\nSee you soon."));
+
+        assertThat(greenMail.waitForIncomingEmail(5_000, 1)).isTrue();
+        MimeMessage received = greenMail.getReceivedMessages()[0];
+        assertThat(received.getSubject()).isEqualTo("🌿 Session Scheduled");
+        assertThat(received.getAllRecipients()[0].toString()).contains("asha@example.com");
+        assertThat(received.getContent().toString()).contains("See you soon.");
+        channel.shutdown();
+    }
+
+    @Test
+    void rejectedRecipientIsPermanent() throws Exception {
+        SmtpNotificationChannel channel = channel(ServerSetupTest.SMTP.getPort());
+
+        // Not a valid RFC 822 local part; the server refuses it at RCPT TO
+        DeliveryException e = catchThrowableOfType(() -> channel.deliver(
+                new OutgoingMessage("no..such@example.com", "Nobody", "Subject", "Body")), DeliveryException.class);
+
+        assertThat(e).isNotNull();
+        assertThat(e.isRetryable()).isFalse();
+        channel.shutdown();
+    }
+
+    @Test
+    void unreachableServerIsRetryable() throws Exception {
+        SmtpNotificationChannel channel = channel(unusedPort());
+
+        DeliveryException e = catchThrowableOfType(() -> channel.deliver(
+                new OutgoingMessage("asha@example.com", "Asha", "Subject", "Body")), DeliveryException.class);
+
+        assertThat(e).isNotNull();
+        assertThat(e.isRetryable()).isTrue();
+        channel.shutdown();
+    }
+
+    @Test
+    void sustainsBurstOverPooledConnections() throws Exception {
+        SmtpNotificationChannel channel = channel(ServerSetupTest.SMTP.getPort());
+        ExecutorService senders = Executors.newFixedThreadPool(SENDERS);
+        List<Future<?>> sends = new ArrayList<>(MESSAGES);
+
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < MESSAGES; i++) {
+                String email = "patient" + i + "@clinic" + (i % DOMAINS) + ".example.com";
+                sends.add(senders.submit(() -> {
+                    channel.deliver(new OutgoingMessage(email, "Patient", "⏰ Session Reminder", "See you tomorrow."));
+                    return null;
+                }));
+            }
+            for (Future<?> send : sends) {
+                send.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            senders.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertThat(greenMail.waitForIncomingEmail(10_000, MESSAGES)).isTrue();
+        assertThat(MESSAGES / seconds).isGreaterThan(MIN_MESSAGES_PER_SECOND);
+        channel.shutdown();
+    }
+
+    private static SmtpNotificationChannel channel(int port) throws Exception {
+        return new SmtpNotificationChannel(new SimpleMeterRegistry(), ServerSetupTest.SMTP.getBindAddress(), port,
+                "", "", false, "clinic@ayursutra.example.com", POOL_SIZE, 2, 10_000);
+    }
+
+    private static int unusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
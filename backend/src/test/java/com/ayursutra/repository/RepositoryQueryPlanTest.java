@@ -0,0 +1,233 @@
+package com.ayursutra.repository;
+
+import com.ayursutra.model.enums.Phase;
+import com.ayursutra.model.enums.SessionStatus;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls each filtered repository query, records the SQL Hibernate actually sends, and runs
+ * EXPLAIN on it against the schema the Flyway migrations build (which the entity mappings are
+ * validated against). Fails if any table in a plan is read with a full scan, so a new query path
+ * without a supporting index shows up here instead of in production.
+ * <p>
+ * Whole-table reads (the distinct-id queries behind the counter verify pass) are left out:
+ * scanning is what they do. The invalidation bus runs plain JDBC, so its SQL is listed as written.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RepositoryQueryPlanTest {
+
+    private static final Long ID = 1L;
+    private static final List<Long> IDS = List.of(1L, 2L, 3L);
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 1, 1, 10, 0);
+    private static final PageRequest PAGE = PageRequest.of(0, 101);
+
+    @TestConfiguration
+    static class RecordStatements {
+
+        @Bean
+        StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer recordStatements(StatementRecorder statementRecorder) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementRecorder);
+        }
+    }
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TherapySessionRepository sessions;
+
+    @Autowired
+    private PatientProfileRepository patients;
+
+    @Autowired
+    private TherapyPlanRepository plans;
+
+    @Autowired
+    private FeedbackRepository feedbacks;
+
+    @Autowired
+    private NotificationRepository notifications;
+
+    @Autowired
+    private NotificationOutboxRepository outbox;
+
+    @Autowired
+    private SessionReminderRepository reminders;
+
+    @Autowired
+    private PractitionerSessionStatsRepository practitionerStats;
+
+    @Autowired
+    private PatientPhaseStatsRepository patientStats;
+
+    @Autowired
+    private UserRepository users;
+
+    static Stream<Arguments> queries() {
+        return Stream.of(
+                repository("TherapySessionRepository.findWithPlanById", t -> t.sessions.findWithPlanById(ID)),
+                repository("TherapySessionRepository.findWithPlanByIdIn", t -> t.sessions.findWithPlanByIdIn(IDS)),
+                repository("TherapySessionRepository.findSlotsByPractitionerIdAndStatusFrom", t ->
+                        t.sessions.findSlotsByPractitionerIdAndStatusFrom(ID, SessionStatus.SCHEDULED, AT)),
+                repository("TherapySessionRepository.findSlotsByPractitionerIdAndStatusBetween", t ->
+                        t.sessions.findSlotsByPractitionerIdAndStatusBetween(ID, SessionStatus.SCHEDULED, AT, AT.plusHours(2))),
+                repository("TherapySessionRepository.findResponsesByPatientId", t -> t.sessions.findResponsesByPatientId(ID, PAGE)),
+                repository("TherapySessionRepository.findResponsesByPatientIdAfter", t ->
+                        t.sessions.findResponsesByPatientIdAfter(ID, AT, ID, PAGE)),
+                repository("TherapySessionRepository.findResponsesByPractitionerIdAndStatus", t ->
+                        t.sessions.findResponsesByPractitionerIdAndStatus(ID, SessionStatus.SCHEDULED, PAGE)),
+                repository("TherapySessionRepository.countDashboard", t -> t.sessions.countDashboard(ID)),
+                repository("TherapySessionRepository.countByPhaseForPatient", t -> t.sessions.countByPhaseForPatient(ID)),
+
+                repository("PatientProfileRepository.findByUserId", t -> t.patients.findByUserId(ID)),
+                repository("PatientProfileRepository.existsByUserId", t -> t.patients.existsByUserId(ID)),
+                repository("PatientProfileRepository.findResponsesByPractitionerId", t ->
+                        t.patients.findResponsesByPractitionerId(ID, PAGE)),
+                repository("PatientProfileRepository.findResponsesByPractitionerIdAfter", t ->
+                        t.patients.findResponsesByPractitionerIdAfter(ID, ID, PAGE)),
+                repository("PatientProfileRepository.findRecentResponsesByPractitionerId", t ->
+                        t.patients.findRecentResponsesByPractitionerId(ID, PageRequest.of(0, 5))),
+                repository("PatientProfileRepository.countByPractitionerId", t -> t.patients.countByPractitionerId(ID)),
+
+                repository("TherapyPlanRepository.findWithParticipantsById", t -> t.plans.findWithParticipantsById(ID)),
+                repository("TherapyPlanRepository.findResponsesByPractitionerId", t ->
+                        t.plans.findResponsesByPractitionerId(ID, PAGE)),
+                repository("TherapyPlanRepository.findResponsesByPractitionerIdAfter", t ->
+                        t.plans.findResponsesByPractitionerIdAfter(ID, ID, PAGE)),
+
+                repository("FeedbackRepository.findBySessionId", t -> t.feedbacks.findBySessionId(ID)),
+                repository("FeedbackRepository.existsBySessionId", t -> t.feedbacks.existsBySessionId(ID)),
+                repository("FeedbackRepository.findBySessionIdIn", t -> t.feedbacks.findBySessionIdIn(IDS)),
+                repository("FeedbackRepository.findResponsesBySessionIdIn", t -> t.feedbacks.findResponsesBySessionIdIn(IDS)),
+                repository("FeedbackRepository.findResponsesByPractitionerId", t ->
+                        t.feedbacks.findResponsesByPractitionerId(ID, PAGE)),
+                repository("FeedbackRepository.findResponsesByPractitionerIdAfter", t ->
+                        t.feedbacks.findResponsesByPractitionerIdAfter(ID, AT, ID, PAGE)),
+
+                repository("NotificationRepository.findRowsByUserId", t -> t.notifications.findRowsByUserId(ID, PAGE)),
+                repository("NotificationRepository.findRowsByUserIdAfter", t ->
+                        t.notifications.findRowsByUserIdAfter(ID, AT, ID, PAGE)),
+
+                repository("NotificationOutboxRepository.findDueIds", t ->
+                        t.outbox.findDueIds(AT, PageRequest.of(0, 100))),
+                repository("NotificationOutboxRepository.claim", t -> t.outbox.claim(IDS, "token", AT, AT.plusMinutes(1))),
+                repository("NotificationOutboxRepository.findByClaimToken", t -> t.outbox.findByClaimToken("token")),
+                repository("NotificationOutboxRepository.findForUpdateByClaimToken", t ->
+                        t.outbox.findForUpdateByClaimToken("token")),
+                repository("NotificationOutboxRepository.renewLease", t -> t.outbox.renewLease("token", AT)),
+                repository("NotificationOutboxRepository.reschedule", t -> t.outbox.reschedule(ID, "token", 2, AT)),
+                repository("NotificationOutboxRepository.deleteClaimed", t -> t.outbox.deleteClaimed(IDS, "token")),
+
+                repository("SessionReminderRepository.findDueBefore", t ->
+                        t.reminders.findDueBefore(AT, PageRequest.of(0, 1000))),
+                repository("SessionReminderRepository.claim", t -> t.reminders.claim(ID)),
+                repository("SessionReminderRepository.deleteBySessionId", t -> t.reminders.deleteBySessionId(ID)),
+
+                repository("PractitionerSessionStatsRepository.applyDelta", t ->
+                        t.practitionerStats.applyDelta(ID, 1, 0, 1, 0)),
+                repository("PractitionerSessionStatsRepository.findForUpdate", t -> t.practitionerStats.findForUpdate(ID)),
+                repository("PatientPhaseStatsRepository.applyDelta", t ->
+                        t.patientStats.applyDelta(ID, Phase.PURVAKARMA, 1, 0, 1, 0)),
+                repository("PatientPhaseStatsRepository.findByPatientId", t -> t.patientStats.findByPatientId(ID)),
+                repository("PatientPhaseStatsRepository.findForUpdate", t -> t.patientStats.findForUpdate(ID)),
+
+                repository("UserRepository.findByEmail", t -> t.users.findByEmail("nobody@example.com")),
+                repository("UserRepository.existsByEmail", t -> t.users.existsByEmail("nobody@example.com")),
+                repository("UserRepository.findTokenVersionById", t -> t.users.findTokenVersionById(ID)),
+                repository("UserRepository.findNameById", t -> t.users.findNameById(ID)),
+                repository("UserRepository.findForUpdate", t -> t.users.findForUpdate(ID)),
+
+                jdbc("JdbcInvalidationBus.poll",
+                        "SELECT id, node_id, kind, entity_key, created_at FROM cache_invalidations " +
+                        "WHERE created_at > ? ORDER BY id"),
+                jdbc("JdbcInvalidationBus.prune",
+                        "DELETE FROM cache_invalidations WHERE created_at < ?")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void queryUsesAnIndex(String name, Statements statements) {
+        List<String> sql = statements.capture(this);
+
+        assertThat(sql).as("statements run by %s", name).isNotEmpty();
+        for (String statement : sql) {
+            assertThat(explain(statement)).as("plan for %s: %s", name, statement).doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    // Prepared, so the parameter markers stay in place; H2 plans EXPLAIN without bound values
+    private String explain(String sql) {
+        return jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                rs -> rs.next() ? rs.getString(1) : null);
+    }
+
+    private static Arguments repository(String name, Consumer<RepositoryQueryPlanTest> call) {
+        return Arguments.of(name, (Statements) test -> {
+            test.statementRecorder.clear();
+            call.accept(test);
+            return test.statementRecorder.statements();
+        });
+    }
+
+    private static Arguments jdbc(String name, String sql) {
+        return Arguments.of(name, (Statements) test -> List.of(sql));
+    }
+
+    @FunctionalInterface
+    interface Statements {
+        List<String> capture(RepositoryQueryPlanTest test);
+    }
+
+    /**
+     * Keeps every statement Hibernate prepares, unchanged.
+     */
+    static final class StatementRecorder implements StatementInspector {
+
+        private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        List<String> statements() {
+            return List.copyOf(statements);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ayursutra.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code @CurrentUser} is resolved from the authenticated principal, without reading the token
+ * again; requests that are not authenticated with a user get {@code null}.
+ */
+class CurrentUserArgumentResolverTest {
+
+    private final CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver();
+    private MethodParameter userIdParameter;
+    private MethodParameter principalParameter;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        userIdParameter = new MethodParameter(
+                CurrentUserArgumentResolverTest.class.getDeclaredMethod("handler", Long.class), 0);
+        principalParameter = new MethodParameter(
+                CurrentUserArgumentResolverTest.class.getDeclaredMethod("principalHandler", CustomUserDetails.class), 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void resolvesTheAuthenticatedUserId() {
+        CustomUserDetails principal = new CustomUserDetails("dr.sharma@ayursutra.com", "",
+                List.of(new SimpleGrantedAuthority("ROLE_PRACTITIONER")), 42L);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        assertThat(resolver.supportsParameter(userIdParameter)).isTrue();
+        assertThat(resolver.resolveArgument(userIdParameter, null, null, null)).isEqualTo(42L);
+        assertThat(resolver.supportsParameter(principalParameter)).isTrue();
+        assertThat(resolver.resolveArgument(principalParameter, null, null, null)).isSameAs(principal);
+    }
+
+    @Test
+    void resolvesNullWithoutAuthentication() {
+        assertThat(resolver.resolveArgument(userIdParameter, null, null, null)).isNull();
+    }
+
+    @Test
+    void resolvesNullForAnAnonymousPrincipal() {
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+
+        assertThat(resolver.resolveArgument(userIdParameter, null, null, null)).isNull();
+    }
+
+    @SuppressWarnings("unused")
+    private void handler(@CurrentUser Long userId) {
+    }
+
+    @SuppressWarnings("unused")
+    private void principalHandler(@CurrentUser CustomUserDetails principal) {
+    }
+}
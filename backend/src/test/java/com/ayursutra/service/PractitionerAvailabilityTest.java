@@ -0,0 +1,80 @@
+package com.ayursutra.service;
+
+import com.ayursutra.dto.AvailableSlot;
+import com.ayursutra.dto.BulkSessionRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * "Next 20 free 60-minute slots over the next four weeks" for a practitioner whose first 26 days
+ * are booked around the clock, so the finder has to scan almost the whole range. The average
+ * time per call over a warmed-up loop is reported in the assertion description, not gated on.
+ */
+@SpringBootTest
+class PractitionerAvailabilityTest {
+
+    private static final int DAYS = 28;
+    private static final int BOOKED_DAYS = 26;
+    private static final int SLOTS = 20;
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    @Autowired
+    private PractitionerService practitionerService;
+
+    @Autowired
+    private PractitionerCalendar practitionerCalendar;
+
+    @Autowired
+    private PractitionerFixtures fixtures;
+
+    private Long practitionerId;
+    private LocalDateTime from;
+
+    @BeforeEach
+    void bookFirstDaysSolid() {
+        practitionerId = fixtures.practitioner();
+        Long planId = fixtures.plan(practitionerId, fixtures.patient(practitionerId));
+        from = LocalDate.now().plusDays(3).atStartOfDay();
+        for (int hour = 0; hour < 24; hour++) {
+            BulkSessionRequest request = new BulkSessionRequest();
+            request.setTherapyPlanId(planId);
+            request.setProcedureName("Abhyanga");
+            request.setFirstSession(from.plusHours(hour));
+            request.setCount(BOOKED_DAYS);
+            request.setIntervalDays(1);
+            practitionerService.scheduleCourse(request, practitionerId);
+        }
+    }
+
+    @Test
+    void findsNextFreeSlotsPastTheBookedDays() {
+        LocalDateTime to = from.plusDays(DAYS);
+        List<AvailableSlot> slots = practitionerService.getAvailability(practitionerId, from, to, 60, SLOTS);
+
+        assertThat(slots).hasSize(SLOTS);
+        assertThat(slots).allSatisfy(slot ->
+                assertThat(slot.getStart()).isAfterOrEqualTo(from.plusDays(BOOKED_DAYS)));
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += practitionerCalendar.findFreeSlots(practitionerId, from, to, 60, SLOTS).size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += practitionerCalendar.findFreeSlots(practitionerId, from, to, 60, SLOTS).size();
+        }
+        long micros = (System.nanoTime() - start) / ITERATIONS / 1_000;
+
+        assertThat(sink).as("%d free-slot searches, %d µs each", ITERATIONS, micros)
+                .isEqualTo((long) (WARMUP + ITERATIONS) * SLOTS);
+    }
+}
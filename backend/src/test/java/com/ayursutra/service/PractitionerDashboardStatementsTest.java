@@ -0,0 +1,59 @@
+package com.ayursutra.service;
+
+import com.ayursutra.dto.DashboardResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The dashboard is aggregates plus two short lists, so the number of statements it runs must not
+ * depend on how many sessions the practitioner has. Counted with Hibernate statistics, which are
+ * global: the outbox and reminder pollers are slowed down so they do not run during the count.
+ */
+@SpringBootTest(properties = {
+        "app.notifications.outbox.poll-interval-ms=3600000",
+        "app.reminders.load-interval-ms=3600000"
+})
+class PractitionerDashboardStatementsTest {
+
+    private static final int SESSIONS = 2_000;
+    // Counters, upcoming sessions, their feedback, patient count, recent patients
+    private static final long MAX_STATEMENTS = 5;
+
+    @Autowired
+    private PractitionerService practitionerService;
+
+    @Autowired
+    private PractitionerFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void dashboardStatementCountIsIndependentOfSessionCount() {
+        Long practitionerId = fixtures.practitioner();
+        Long patientId = fixtures.patient(practitionerId);
+        Long planId = fixtures.plan(practitionerId, patientId);
+        fixtures.dailySessions(practitionerId, planId, LocalDate.now().plusDays(3).atTime(6, 0), SESSIONS);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        DashboardResponse dashboard = practitionerService.getDashboard(practitionerId);
+
+        long statements = statistics.getPrepareStatementCount();
+        assertThat(dashboard.getTotalSessions()).isEqualTo(SESSIONS);
+        assertThat(dashboard.getUpcomingSessions()).isEqualTo(SESSIONS);
+        assertThat(dashboard.getUpcomingSessionList()).isNotEmpty();
+        assertThat(statements)
+                .as("statements run by getDashboard with %d sessions", SESSIONS)
+                .isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ayursutra.service;
+
+import com.ayursutra.dto.BulkSessionRequest;
+import com.ayursutra.dto.PatientProfileRequest;
+import com.ayursutra.dto.RegisterRequest;
+import com.ayursutra.dto.TherapyPlanRequest;
+import com.ayursutra.model.enums.Phase;
+import com.ayursutra.model.enums.Role;
+import com.ayursutra.security.PasswordHasher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Builds practitioners, patients, plans and courses through the services, so tests start from
+ * the same state (counters, calendar, events) the API would leave behind.
+ */
+@Component
+public class PractitionerFixtures {
+
+    private static final String PASSWORD = "panchakarma";
+
+    private final AuthService authService;
+    private final PractitionerService practitionerService;
+    private final PasswordHasher passwordHasher;
+    // createPatient expects the caller to have hashed the password; every fixture patient shares it
+    private volatile String passwordHash;
+
+    public PractitionerFixtures(AuthService authService, PractitionerService practitionerService,
+                                PasswordHasher passwordHasher) {
+        this.authService = authService;
+        this.practitionerService = practitionerService;
+        this.passwordHasher = passwordHasher;
+    }
+
+    public Long practitioner() {
+        return authService.register(new RegisterRequest(
+                "Dr. Fixture", uniqueEmail("practitioner"), PASSWORD, Role.PRACTITIONER)).getUserId();
+    }
+
+    /**
+     * Creates a patient of the practitioner and returns the patient's user id.
+     */
+    public Long patient(Long practitionerId) {
+        PatientProfileRequest request = new PatientProfileRequest();
+        request.setName("Fixture Patient");
+        request.setEmail(uniqueEmail("patient"));
+        request.setPassword(PASSWORD);
+        return practitionerService.createPatient(request, passwordHash(), practitionerId).getUserId();
+    }
+
+    public Long plan(Long practitionerId, Long patientId) {
+        TherapyPlanRequest request = new TherapyPlanRequest();
+        request.setPatientId(patientId);
+        request.setPhase(Phase.PRADHANAKARMA);
+        request.setDescription("Fixture plan");
+        return practitionerService.createTherapyPlan(request, practitionerId).getId();
+    }
+
+    /**
+     * Schedules {@code count} daily sessions on the plan, in courses of at most
+     * {@link PractitionerService#MAX_COURSE_SESSIONS}. Each course starts two hours after the
+     * previous one on the same days, twelve courses per block of days, so no two sessions conflict.
+     */
+    public void dailySessions(Long practitionerId, Long planId, LocalDateTime first, int count) {
+        int courseSize = PractitionerService.MAX_COURSE_SESSIONS;
+        for (int course = 0, scheduled = 0; scheduled < count; course++) {
+            int size = Math.min(courseSize, count - scheduled);
+            BulkSessionRequest request = new BulkSessionRequest();
+            request.setTherapyPlanId(planId);
+            request.setProcedureName("Abhyanga");
+            request.setFirstSession(first
+                    .plusDays((long) (course / 12) * courseSize)
+                    .plusHours((course % 12) * 2L));
+            request.setCount(size);
+            request.setIntervalDays(1);
+            practitionerService.scheduleCourse(request, practitionerId);
+            scheduled += size;
+        }
+    }
+
+    private String passwordHash() {
+        if (passwordHash == null) {
+            passwordHash = passwordHasher.encode(PASSWORD);
+        }
+        return passwordHash;
+    }
+
+    private static String uniqueEmail(String prefix) {
+        return prefix + "-" + UUID.randomUUID() + "@example.com";
+    }
+}
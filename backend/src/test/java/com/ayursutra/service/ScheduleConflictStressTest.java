@@ -0,0 +1,149 @@
+package com.ayursutra.service;
+
+import com.ayursutra.dto.AuthResponse;
+import com.ayursutra.dto.RegisterRequest;
+import com.ayursutra.dto.TherapySessionRequest;
+import com.ayursutra.exception.BadRequestException;
+import com.ayursutra.model.TherapySession;
+import com.ayursutra.model.enums.Role;
+import com.ayursutra.model.enums.SessionStatus;
+import com.ayursutra.repository.TherapyPlanRepository;
+import com.ayursutra.repository.TherapySessionRepository;
+import com.ayursutra.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Thousands of concurrent bookings for one practitioner, half through {@code POST /api/session}
+ * and half through a second {@link PractitionerCalendar} that reserves and inserts the session in
+ * its own transaction, standing in for another node that shares only the database. Whatever each
+ * calendar believes, no two committed sessions may fall within the conflict window of each other.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ScheduleConflictStressTest {
+
+    private static final int CLIENTS = 32;
+    private static final int BOOKINGS = 2000;
+    private static final int SLOTS = 3 * 24 * 3;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PractitionerFixtures fixtures;
+
+    @Autowired
+    private TherapySessionRepository therapySessionRepository;
+
+    @Autowired
+    private TherapyPlanRepository therapyPlanRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentBookingsAcrossNodesNeverOverlap() throws Exception {
+        AuthResponse practitioner = authService.register(new RegisterRequest(
+                "Dr. Stress", "stress-" + UUID.randomUUID() + "@example.com", "panchakarma", Role.PRACTITIONER));
+        Long practitionerId = practitioner.getUserId();
+        Long planId = fixtures.plan(practitionerId, fixtures.patient(practitionerId));
+        PractitionerCalendar secondNode = new PractitionerCalendar(therapySessionRepository, userRepository, 10_000, 60);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(practitioner.getToken());
+        // Starts on a 20-minute grid over three days, well past the reminder horizon
+        LocalDateTime first = LocalDate.now().plusDays(5).atStartOfDay();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < BOOKINGS; i++) {
+                boolean viaApi = i % 2 == 0;
+                results.add(clients.submit(() -> {
+                    LocalDateTime start = first.plusMinutes(20L * ThreadLocalRandom.current().nextInt(SLOTS));
+                    if (viaApi) {
+                        TherapySessionRequest request = new TherapySessionRequest(planId, "Abhyanga", start, null);
+                        ResponseEntity<String> response = rest.postForEntity(
+                                "/api/session", new HttpEntity<>(request, headers), String.class);
+                        if (response.getStatusCode().is2xxSuccessful()) {
+                            booked.incrementAndGet();
+                        } else if (response.getStatusCode() == HttpStatus.BAD_REQUEST) {
+                            conflicts.incrementAndGet();
+                        } else {
+                            failures.incrementAndGet();
+                        }
+                    } else {
+                        try {
+                            transaction.executeWithoutResult(status -> {
+                                PractitionerCalendar.Booking booking = secondNode.reserveAll(
+                                        practitionerId, List.of(start), "Abhyanga").get(0);
+                                TherapySession session = therapySessionRepository.save(TherapySession.builder()
+                                        .therapyPlan(therapyPlanRepository.findWithParticipantsById(planId).orElseThrow())
+                                        .procedureName("Abhyanga")
+                                        .scheduledDate(start)
+                                        .status(SessionStatus.SCHEDULED)
+                                        .build());
+                                secondNode.confirm(practitionerId, booking, session.getId());
+                            });
+                            booked.incrementAndGet();
+                        } catch (BadRequestException e) {
+                            conflicts.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        assertThat(failures.get()).isZero();
+        assertThat(booked.get() + conflicts.get()).isEqualTo(BOOKINGS);
+
+        List<LocalDateTime> committed = therapySessionRepository.findAll().stream()
+                .filter(s -> practitionerId.equals(s.getPractitionerId()) && s.getStatus() == SessionStatus.SCHEDULED)
+                .map(TherapySession::getScheduledDate)
+                .sorted(Comparator.naturalOrder())
+                .toList();
+        assertThat(committed).hasSize(booked.get());
+        for (int i = 1; i < committed.size(); i++) {
+            assertThat(Duration.between(committed.get(i - 1), committed.get(i)))
+                    .as("sessions at %s and %s", committed.get(i - 1), committed.get(i))
+                    .isGreaterThan(PractitionerCalendar.CONFLICT_WINDOW);
+        }
+    }
+}
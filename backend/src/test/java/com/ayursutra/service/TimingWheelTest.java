@@ -0,0 +1,116 @@
+package com.ayursutra.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives a small wheel (10 ms ticks, 8 buckets, so 80 ms per level-0 turn and 640 ms per level-1
+ * turn) one tick at a time. Every item must fire exactly once, at most one tick before it is due
+ * and never after, whichever level it was added to.
+ */
+class TimingWheelTest {
+
+    private static final long TICK_MS = 10;
+    private static final int WHEEL_SIZE = 8;
+    private static final long SPAN_MS = TICK_MS * WHEEL_SIZE;
+    // A multiple of the level-0 span but not of the level-1 span
+    private static final long START_MS = 1_000_000;
+
+    private final TimingWheel<Integer> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, START_MS);
+    private final List<Long> expirations = new ArrayList<>();
+    private final Map<Integer, List<Long>> firedAt = new HashMap<>();
+    private long now = START_MS;
+
+    @Test
+    void itemsInTheSameTickFireTogether() {
+        add(START_MS + 21);
+        add(START_MS + 25);
+        add(START_MS + 29);
+
+        runPastLastItem();
+
+        assertFiredOnceOnTime();
+        assertThat(firedAt.values()).allSatisfy(times -> assertThat(times).containsExactly(START_MS + 20));
+    }
+
+    @Test
+    void itemsJustPastTheSpanCascadeFromTheOverflowLevel() {
+        add(START_MS + SPAN_MS - 1);
+        add(START_MS + SPAN_MS);
+        add(START_MS + SPAN_MS + 1);
+        add(START_MS + SPAN_MS + TICK_MS - 1);
+        add(START_MS + SPAN_MS + TICK_MS);
+
+        runPastLastItem();
+
+        assertFiredOnceOnTime();
+    }
+
+    @Test
+    void itemsSeveralLevelsOutCascadeThroughEachLevel() {
+        add(START_MS + SPAN_MS * WHEEL_SIZE + 5);
+        add(START_MS + SPAN_MS * WHEEL_SIZE * WHEEL_SIZE + 123);
+        add(START_MS + SPAN_MS * WHEEL_SIZE * WHEEL_SIZE * 3 + 7);
+        add(START_MS + 3 * TICK_MS);
+
+        runPastLastItem();
+
+        assertFiredOnceOnTime();
+    }
+
+    @Test
+    void itemAddedOffTheOverflowTickIsNotLost() {
+        advanceTo(START_MS + 3 * TICK_MS);
+
+        add(now + SPAN_MS);
+        add(now + SPAN_MS + 1);
+        add(now + 3 * SPAN_MS + 1);
+        add(now + SPAN_MS * WHEEL_SIZE + 2 * TICK_MS);
+
+        runPastLastItem();
+
+        assertFiredOnceOnTime();
+    }
+
+    @Test
+    void itemDueWithinTheCurrentTickIsRejected() {
+        advanceTo(START_MS + 3 * TICK_MS);
+
+        assertThat(wheel.add(now + TICK_MS - 1, -1)).isFalse();
+        assertThat(wheel.add(now + TICK_MS, -1)).isTrue();
+    }
+
+    private void add(long expirationMs) {
+        int index = expirations.size();
+        expirations.add(expirationMs);
+        assertThat(wheel.add(expirationMs, index)).as("added item due at %d", expirationMs).isTrue();
+    }
+
+    private void runPastLastItem() {
+        long last = expirations.stream().mapToLong(Long::longValue).max().orElseThrow();
+        advanceTo(last + TICK_MS);
+    }
+
+    private void advanceTo(long untilMs) {
+        while (now < untilMs) {
+            now += TICK_MS;
+            wheel.advanceTo(now, index -> firedAt.computeIfAbsent(index, i -> new ArrayList<>()).add(now));
+        }
+    }
+
+    private void assertFiredOnceOnTime() {
+        for (int i = 0; i < expirations.size(); i++) {
+            long expirationMs = expirations.get(i);
+            assertThat(firedAt.get(i)).as("firings of the item due at %d", expirationMs).hasSize(1);
+            assertThat(firedAt.get(i).get(0)).as("firing of the item due at %d", expirationMs)
+                    .isGreaterThan(expirationMs - TICK_MS)
+                    .isLessThanOrEqualTo(expirationMs);
+        }
+    }
+}
@@ -8,7 +8,7 @@ import {
     ChevronRight,
     User
 } from 'lucide-react';
-import { patientService } from '../../services/api';
+import { patientService, openEventStream } from '../../services/api';
 import CalendarModule from '../../components/CalendarModule';
 import Skeleton from '../../components/Skeleton';
 import { useAuth } from '../../context/AuthContext';
@@ -23,10 +23,34 @@ const PatientDashboard = () => {
     useEffect(() => {
         document.title = 'My Wellbeing — AyurSutra';
         fetchData();
-        const interval = setInterval(fetchData, 30000); // Poll every 30s for real-time updates
-        return () => clearInterval(interval);
+        // Pushed updates replace polling: new notifications are prepended, session changes reload progress.
+        // Events relayed from another server node carry no notification, so the list is reloaded instead.
+        return openEventStream({
+            notification: (n) => n && n.id
+                ? setNotifications(prev => [n, ...prev.filter(p => p.id !== n.id)])
+                : refreshNotifications(),
+            sessions: () => refreshProgress(),
+        }, fetchData);
     }, []);
 
+    const refreshNotifications = async () => {
+        try {
+            const notifyResp = await patientService.getNotifications();
+            setNotifications(notifyResp.data);
+        } catch (err) {
+            console.error('Error fetching notifications', err);
+        }
+    };
+
+    const refreshProgress = async () => {
+        try {
+            const statsResp = await patientService.getTherapyProgress();
+            setStats(statsResp.data);
+        } catch (err) {
+            console.error('Error fetching therapy progress', err);
+        }
+    };
+
     const fetchData = async () => {
         try {
             const [statsResp, notifyResp] = await Promise.all([
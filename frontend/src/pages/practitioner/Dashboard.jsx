@@ -11,7 +11,7 @@ import {
   MoreVertical
 } from 'lucide-react';
 import { useNavigate } from 'react-router-dom';
-import { practitionerService } from '../../services/api';
+import { practitionerService, openEventStream } from '../../services/api';
 import Skeleton, { SkeletonCircle } from '../../components/Skeleton';
 import CalendarModule from '../../components/CalendarModule';
 import Sparkline from '../../components/Sparkline';
@@ -26,8 +26,8 @@ const PractitionerDashboard = () => {
   useEffect(() => {
     document.title = 'Dashboard — AyurSutra';
     fetchDashboardData();
-    const interval = setInterval(fetchDashboardData, 30000); // Poll every 30s
-    return () => clearInterval(interval);
+    // Reload when sessions are scheduled, change status or get feedback, instead of polling
+    return openEventStream({ sessions: fetchDashboardData }, fetchDashboardData);
   }, []);
 
   const fetchDashboardData = async () => {
@@ -16,11 +16,12 @@ api.interceptors.request.use((config) => {
     return config;
 });
 
-// Intercept responses to handle 401 (Unauthorized)
+// Intercept responses to handle 401 (Unauthorized). A 401 from /auth/login is a wrong password,
+// shown on the login form rather than treated as an expired session.
 api.interceptors.response.use(
     (response) => response,
     (error) => {
-        if (error.response && error.response.status === 401) {
+        if (error.response && error.response.status === 401 && !error.config.url.startsWith('/auth/')) {
             localStorage.removeItem('user');
             window.location.href = '/login';
         }
@@ -52,4 +53,50 @@ export const patientService = {
     getMyProfile: () => api.get('/api/my-profile'),
 };
 
+// Server-sent events for the signed-in user. EventSource cannot send headers, so the stream is
+// opened with a short-lived stream token in the query string (accepted on /api/stream only). The
+// token expires within a minute, so on any error the stream is reopened with a fresh token
+// rather than the browser retrying the old URL; onReconnect runs after each reconnect so
+// callers can reload anything missed meanwhile.
+export const openEventStream = (handlers, onReconnect) => {
+    const user = JSON.parse(localStorage.getItem('user'));
+    if (!user || !user.token || typeof EventSource === 'undefined') {
+        return () => {};
+    }
+    let source = null;
+    let retryTimer = null;
+    let closed = false;
+    let opened = false;
+
+    const connect = async () => {
+        let token;
+        try {
+            token = (await api.post('/api/stream/token')).data.token;
+        } catch (error) {
+            if (!closed) retryTimer = setTimeout(connect, 5000);
+            return;
+        }
+        if (closed) return;
+        source = new EventSource(`/api/stream?access_token=${encodeURIComponent(token)}`);
+        source.addEventListener('ready', () => {
+            if (opened && onReconnect) onReconnect();
+            opened = true;
+        });
+        Object.entries(handlers).forEach(([name, handler]) => {
+            source.addEventListener(name, (event) => handler(JSON.parse(event.data)));
+        });
+        source.onerror = () => {
+            source.close();
+            if (!closed) retryTimer = setTimeout(connect, 3000);
+        };
+    };
+    connect();
+
+    return () => {
+        closed = true;
+        clearTimeout(retryTimer);
+        if (source) source.close();
+    };
+};
+
 export default api;